@@ -0,0 +1,35 @@
+package org.example.commands;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Команда 'sync' - запрашивает изменения коллекции после указанной версии.
+ * Наследует функциональность от абстрактного класса Command и реализует интерфейс
+ * Serializable для поддержки сериализации.
+ *
+ * <p>Команда требует обязательного аргумента - версии коллекции, известной клиенту.</p>
+ * <p>Если версия слишком старая, сервер передаёт коллекцию целиком.</p>
+ */
+public class Sync extends Command implements Serializable {
+
+    /**
+     * Уникальный идентификатор версии сериализации.
+     * Обеспечивает корректную десериализацию объекта между разными версиями класса.
+     */
+    @Serial
+    private static final long serialVersionUID = 1351L;
+
+    /**
+     * Конструктор команды sync.
+     * Инициализирует команду с параметрами:
+     * - имя команды: "sync"
+     * - описание: получение изменений коллекции после версии
+     * - флаг hasArgs: true (команда требует обязательного аргумента - версии)
+     */
+    public Sync() {
+        super("sync",
+                "sync version : получить изменения коллекции после версии version",
+                true);
+    }
+}
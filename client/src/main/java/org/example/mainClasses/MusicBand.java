@@ -233,6 +233,33 @@ public class MusicBand implements Validatable, Comparable<MusicBand>, Serializab
         return this.numberOfParticipants;
     }
 
+    /**
+     * Проверяет, задано ли количество участников.
+     *
+     * @return true, если количество участников указано
+     */
+    public boolean hasNumberOfParticipants() {
+        return this.numberOfParticipants != null;
+    }
+
+    /**
+     * Возвращает дату создания записи о музыкальной группе.
+     *
+     * @return дата создания записи
+     */
+    public LocalDateTime getCreationDateTime() {
+        return this.creationDate;
+    }
+
+    /**
+     * Возвращает дату основания музыкальной группы.
+     *
+     * @return дата основания или null, если она не указана
+     */
+    public Date getEstablishmentDate() {
+        return this.establishmentDate;
+    }
+
     /**
      * Возвращает координаты музыкальной группы.
      *
@@ -4,6 +4,8 @@ import java.io.Serializable;
 
 /**
  * Перечисление, представляющее различные музыкальные жанры.
+ * В двоичном формате обмена с сервером жанр передаётся числовым кодом (порядковым номером),
+ * поэтому новые жанры добавляются только в конец списка.
  */
 public enum MusicGenre implements Serializable {
     PSYCHEDELIC_ROCK,
@@ -12,6 +14,32 @@ public enum MusicGenre implements Serializable {
     BLUES,
     MATH_ROCK;
 
+    /** Жанры по коду (values() каждый раз создаёт новый массив) */
+    private static final MusicGenre[] BY_CODE = values();
+
+    /**
+     * Возвращает код жанра для передачи серверу.
+     *
+     * @return код жанра
+     */
+    public short getCode() {
+        return (short) ordinal();
+    }
+
+    /**
+     * Возвращает жанр по коду, полученному от сервера.
+     *
+     * @param code код жанра
+     * @return жанр
+     * @throws IllegalArgumentException если жанра с таким кодом нет
+     */
+    public static MusicGenre fromCode(int code) {
+        if (code < 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("Неизвестный код жанра: " + code);
+        }
+        return BY_CODE[code];
+    }
+
     /**
      * Возвращает строку, содержащую все названия музыкальных жанров, разделенные запятыми.
      *
@@ -0,0 +1,150 @@
+package org.example.managers;
+
+import org.example.mainClasses.MusicBand;
+import org.example.network.CollectionDelta;
+
+import java.time.LocalDate;
+import java.util.*;
+
+/**
+ * Локальная копия коллекции сервера.
+ * Обновляется изменениями, полученными командой sync (см. {@link CollectionDelta}), и отвечает
+ * на читающие команды без обращения к серверу в том же виде, в каком их выводит сервер.
+ * Копия считается устаревшей, если с последней синхронизации прошло больше заданного времени
+ * или клиент отправил на сервер изменяющую команду.
+ */
+public class CollectionReplica {
+
+    /**
+     * Команды, на которые копия отвечает сама. group_counting_by_label выполняется на сервере:
+     * порядок групп там зависит от истории изменений, которую копия не получает.
+     */
+    private static final Set<String> LOCAL_COMMANDS = Set.of(
+            "show", "info", "print_descending", "print_field_ascending_label");
+
+    /** Элементы по ID в порядке коллекции */
+    private final LinkedHashMap<Long, MusicBand> bands = new LinkedHashMap<>();
+
+    /** Максимальное время между синхронизациями, нс */
+    private final long periodNanos;
+
+    /** Версия коллекции на сервере, которой соответствует копия, или -1 до первой синхронизации */
+    private long version = -1;
+
+    /** Дата инициализации коллекции на сервере */
+    private LocalDate date;
+
+    /** Время последней синхронизации, нс */
+    private long syncedAt;
+
+    /** Признак устаревшей копии */
+    private boolean stale = true;
+
+    /**
+     * Конструктор локальной копии.
+     *
+     * @param periodMillis максимальное время между синхронизациями в миллисекундах
+     */
+    public CollectionReplica(long periodMillis) {
+        this.periodNanos = Math.max(0, periodMillis) * 1_000_000;
+    }
+
+    /**
+     * Проверяет, отвечает ли копия на команду сама.
+     *
+     * @param command название команды
+     * @return true, если команда читающая и выполняется по копии
+     */
+    public boolean isLocal(String command) {
+        return LOCAL_COMMANDS.contains(command);
+    }
+
+    /**
+     * Проверяет, нужно ли синхронизировать копию перед ответом.
+     *
+     * @return true, если копия устарела
+     */
+    public boolean isStale() {
+        return stale || System.nanoTime() - syncedAt > periodNanos;
+    }
+
+    /**
+     * Помечает копию устаревшей (после отправки изменяющей команды).
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Возвращает версию коллекции, которой соответствует копия.
+     *
+     * @return версия коллекции или -1, если копия ещё не получена
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Применяет изменения коллекции: удаляет удалённые элементы, затем переносит в конец
+     * добавленные и изменённые; при полной передаче заменяет копию целиком.
+     *
+     * @param delta изменения коллекции
+     */
+    public void apply(CollectionDelta delta) {
+        if (delta.isFull()) {
+            bands.clear();
+        } else {
+            delta.getRemoved().forEach(bands::remove);
+        }
+        for (MusicBand band : delta.getBands()) {
+            bands.remove(band.getId());
+            bands.put(band.getId(), band);
+        }
+        version = delta.getVersion();
+        date = delta.getDate();
+        syncedAt = System.nanoTime();
+        stale = false;
+    }
+
+    /**
+     * Выполняет читающую команду по копии.
+     *
+     * @param command название команды (см. {@link #isLocal(String)})
+     * @return результат команды
+     */
+    public String answer(String command) {
+        return switch (command) {
+            case "show" -> bands.isEmpty() ? "Коллекция пуста!" : join(bands.values());
+            case "info" -> "Информация о коллекции: \nТип: Stack\nДата Создания: " + date + "\nРазмер: " + bands.size();
+            case "print_descending" -> bands.isEmpty() ? "Коллекция пуста!" : join(new TreeMap<>(bands).values());
+            case "print_field_ascending_label" -> labelNames();
+            default -> throw new IllegalArgumentException(command);
+        };
+    }
+
+    /**
+     * Выводит элементы по одному на строку.
+     */
+    private static String join(Collection<MusicBand> values) {
+        StringBuilder result = new StringBuilder();
+        for (MusicBand band : values) {
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append(band);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Выводит названия лейблов по убыванию (null в конце), по одному на строку.
+     */
+    private String labelNames() {
+        List<String> names = new ArrayList<>(bands.size());
+        for (MusicBand band : bands.values()) {
+            names.add(band.getLabelName());
+        }
+        names.sort(Comparator.nullsLast(Comparator.reverseOrder()));
+        return String.join("\n", names);
+    }
+}
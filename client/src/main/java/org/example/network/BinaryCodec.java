@@ -0,0 +1,228 @@
+package org.example.network;
+
+import org.example.mainClasses.Coordinates;
+import org.example.mainClasses.Label;
+import org.example.mainClasses.MusicBand;
+import org.example.mainClasses.MusicGenre;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Компактный двоичный формат запросов и ответов постоянного соединения.
+ * Вместо сериализации Java команда передаётся числовым кодом, а поля пользователя,
+ * аргументов и музыкальной группы записываются вручную без описаний классов.
+ * Должен совпадать с одноимённым классом сервера.
+ */
+public final class BinaryCodec {
+
+    /** Названия команд; код команды — индекс в массиве (новые команды добавляются только в конец) */
+    private static final String[] COMMANDS = {
+            "add", "clear", "execute_script", "group_counting_by_label", "help", "info",
+            "print_descending", "print_field_ascending_label", "remove_at", "remove_by_id",
+            "remove_first", "show", "shuffle", "update", "login", "register", "sync"
+    };
+
+    /** Коды команд по названиям */
+    private static final Map<String, Byte> OPCODES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            OPCODES.put(COMMANDS[i], (byte) i);
+        }
+    }
+
+    /** Способы входа в запросе: логин и пароль или токен сессии */
+    private static final byte AUTH_CREDENTIALS = 0;
+    private static final byte AUTH_TOKEN = 1;
+
+    /** Типы аргумента запроса */
+    private static final byte ARGS_NONE = 0;
+    private static final byte ARGS_LONG = 1;
+    private static final byte ARGS_INT = 2;
+    private static final byte ARGS_STRING = 3;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Записывает запрос в двоичном представлении.
+     *
+     * @param request запрос клиента
+     * @return двоичное представление запроса
+     * @throws IOException если команда или тип аргумента не поддерживаются форматом
+     */
+    public static byte[] encodeRequest(Request request) throws IOException {
+        Byte opcode = request.getCommand() == null ? null : OPCODES.get(request.getCommand().getName());
+        if (opcode == null) {
+            throw new NotSerializableException("Команда не поддерживается двоичным форматом");
+        }
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(opcode);
+        if (request.getToken() != null) {
+            out.writeByte(AUTH_TOKEN);
+            writeString(out, request.getToken());
+        } else {
+            out.writeByte(AUTH_CREDENTIALS);
+            writeString(out, request.user == null ? null : request.user.getLogin());
+            writeString(out, request.user == null ? null : request.user.getPassword());
+        }
+        Object args = request.getArgs();
+        if (args == null) {
+            out.writeByte(ARGS_NONE);
+        } else if (args instanceof Long value) {
+            out.writeByte(ARGS_LONG);
+            out.writeLong(value);
+        } else if (args instanceof Integer value) {
+            out.writeByte(ARGS_INT);
+            out.writeInt(value);
+        } else if (args instanceof String value) {
+            out.writeByte(ARGS_STRING);
+            writeString(out, value);
+        } else {
+            throw new NotSerializableException(args.getClass().getName());
+        }
+        out.writeBoolean(request.getMusicBand() != null);
+        if (request.getMusicBand() != null) {
+            writeBand(out, request.getMusicBand());
+        }
+        out.writeLong(request.getKnownVersion());
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Восстанавливает ответ из двоичного представления.
+     *
+     * @param data   массив байтов
+     * @param offset начало данных
+     * @param length длина данных
+     * @return ответ сервера
+     * @throws IOException если данные повреждены
+     */
+    public static Response decodeResponse(byte[] data, int offset, int length) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(data, offset, length);
+        try {
+            LoginError loginError = in.get() != 0 ? LoginError.LOGIN_ERROR : null;
+            Response response = new Response(loginError, readString(in));
+            response.setToken(readString(in));
+            response.setVersion(in.getLong());
+            response.setNotModified(in.get() != 0);
+            if (in.get() != 0) {
+                long fromVersion = in.getLong();
+                long version = in.getLong();
+                boolean full = in.get() != 0;
+                // ёмкость ограничена остатком данных: повреждённое количество не вызовет огромного выделения
+                int count = in.getInt();
+                List<MusicBand> bands = new ArrayList<>(Math.max(0, Math.min(count, in.remaining())));
+                for (int i = 0; i < count; i++) {
+                    bands.add(readBand(in));
+                }
+                count = in.getInt();
+                List<Long> removed = new ArrayList<>(Math.max(0, Math.min(count, in.remaining())));
+                for (int i = 0; i < count; i++) {
+                    removed.add(in.getLong());
+                }
+                long epochDay = in.getLong();
+                response.setDelta(new CollectionDelta(fromVersion, version, full, bands, removed,
+                        epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay)));
+            }
+            return response;
+        } catch (BufferUnderflowException e) {
+            throw new StreamCorruptedException("Ответ обрезан");
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            // недопустимые значения полей (например, жанр из более новой версии сервера)
+            throw new StreamCorruptedException("Ответ повреждён: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Записывает поля музыкальной группы.
+     *
+     * @param out  поток вывода
+     * @param band музыкальная группа
+     * @throws IOException если произошла ошибка записи
+     */
+    public static void writeBand(DataOutputStream out, MusicBand band) throws IOException {
+        out.writeLong(band.getId());
+        writeString(out, band.getName());
+        out.writeFloat((float) band.getCoordinates().getX());
+        out.writeLong(band.getCoordinates().getY());
+        LocalDateTime creationDate = band.getCreationDateTime();
+        out.writeLong(creationDate.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(creationDate.getNano());
+        out.writeInt(band.hasNumberOfParticipants() ? band.getNumberOfParticipants() : 0);
+        Date establishmentDate = band.getEstablishmentDate();
+        out.writeLong(establishmentDate == null ? Long.MIN_VALUE : establishmentDate.getTime());
+        out.writeByte(band.getGenre() == null ? -1 : band.getGenre().getCode());
+        writeString(out, band.getLabel().getName());
+        out.writeInt(band.getLabel().getBands());
+        out.writeLong(band.getLabel().getSales());
+        writeString(out, band.getUserLogin());
+    }
+
+    /**
+     * Читает поля музыкальной группы, записанные {@link #writeBand}.
+     *
+     * @param in буфер с данными
+     * @return музыкальная группа
+     */
+    public static MusicBand readBand(ByteBuffer in) {
+        long id = in.getLong();
+        String name = readString(in);
+        Coordinates coordinates = new Coordinates(in.getFloat(), in.getLong());
+        LocalDateTime creationDate = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        int participants = in.getInt();
+        long establishmentTime = in.getLong();
+        byte genre = in.get();
+        Label label = new Label(readString(in), in.getInt(), in.getLong());
+        MusicBand band = new MusicBand(name, coordinates, creationDate,
+                participants == 0 ? null : participants,
+                establishmentTime == Long.MIN_VALUE ? null : new Date(establishmentTime),
+                genre < 0 ? null : MusicGenre.fromCode(genre),
+                label);
+        band.setId(id);
+        band.setUserLogin(readString(in));
+        return band;
+    }
+
+    /**
+     * Записывает строку как длину в байтах UTF-8 и сами байты (-1 для null).
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Читает строку, записанную {@link #writeString}.
+     */
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
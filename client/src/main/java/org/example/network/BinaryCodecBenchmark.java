@@ -0,0 +1,96 @@
+package org.example.network;
+
+import org.example.commands.Show;
+import org.example.commands.UpdateId;
+import org.example.mainClasses.*;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Замер размера и стоимости кодирования запросов двоичным форматом {@link BinaryCodec}
+ * по сравнению с сериализацией Java.
+ * Без аргументов измеряет только кодирование; с аргументами host и port дополнительно измеряет
+ * время полного обмена с запущенным сервером в обоих форматах.
+ *
+ * <p>Запуск: {@code java -cp <классы клиента> org.example.network.BinaryCodecBenchmark [host port]}</p>
+ */
+public class BinaryCodecBenchmark {
+
+    /** Количество запросов в одном замере кодирования */
+    private static final int ENCODE_ITERATIONS = 200_000;
+
+    /** Количество запросов в одном замере обмена с сервером */
+    private static final int ROUND_TRIP_ITERATIONS = 20_000;
+
+    /** Количество замеров; первые прогревают JIT и не выводятся */
+    private static final int ROUNDS = 3;
+
+    /** Сумма размеров, не дающая JIT удалить кодирование как неиспользуемое */
+    private static long sink;
+
+    /**
+     * Точка входа замера.
+     *
+     * @param args необязательные host и port сервера для замера обмена
+     * @throws Exception если кодирование или обмен с сервером завершились ошибкой
+     */
+    public static void main(String[] args) throws Exception {
+        User user = new User("someuser", "password123");
+        MusicBand band = new MusicBand("The Band", new Coordinates(12.5f, 900), 4, new Date(),
+                MusicGenre.SOUL, new Label("Sony", 10, 1000));
+        band.setUserLogin(user.getLogin());
+        Request show = new Request(new Show(), user);
+        Request update = new Request(new UpdateId(), band, 5L, user);
+
+        for (Request request : List.of(show, update)) {
+            System.out.println(request.getCommand().getName() + ": serial " + Protocol.serialize(request).length
+                    + " B, binary " + BinaryCodec.encodeRequest(request).length + " B");
+            long serial = 0;
+            long binary = 0;
+            for (int round = 0; round < ROUNDS; round++) {
+                serial = encodeNanos(request, WireFormat.SERIAL);
+                binary = encodeNanos(request, WireFormat.BINARY);
+            }
+            System.out.println("  кодирование, нс на запрос: serial " + serial + ", binary " + binary);
+        }
+
+        if (args.length >= 2) {
+            for (WireFormat format : WireFormat.values()) {
+                Client client = new Client(args[0], Integer.parseInt(args[1]), 1000, 3, true, format);
+                long micros = 0;
+                for (int round = 0; round < ROUNDS; round++) {
+                    long start = System.nanoTime();
+                    for (int i = 0; i < ROUND_TRIP_ITERATIONS; i++) {
+                        client.sendRequest(update);
+                    }
+                    micros = (System.nanoTime() - start) / 1000 / ROUND_TRIP_ITERATIONS;
+                }
+                System.out.println(format + ": обмен с сервером, мкс на запрос " + micros);
+                client.closePersistent();
+            }
+        }
+        if (sink == 0) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Измеряет среднее время кодирования запроса.
+     *
+     * @param request запрос
+     * @param format  формат кодирования
+     * @return наносекунд на один запрос
+     * @throws IOException если запрос не удалось закодировать
+     */
+    private static long encodeNanos(Request request, WireFormat format) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < ENCODE_ITERATIONS; i++) {
+            sink += format == WireFormat.BINARY
+                    ? BinaryCodec.encodeRequest(request).length
+                    : Protocol.serialize(request).length;
+        }
+        return (System.nanoTime() - start) / ENCODE_ITERATIONS;
+    }
+}
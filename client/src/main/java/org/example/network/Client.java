@@ -1,17 +1,21 @@
 package org.example.network;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 import java.net.InetSocketAddress;
-import java.net.Socket;
 import java.nio.channels.SocketChannel;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Клиент для взаимодействия с сервером по сети.
  * Обеспечивает установку соединения, отправку запросов и получение ответов.
  * Поддерживает механизм повторного подключения при разрыве соединения.
+ * В постоянном режиме держит одно соединение на всё время работы и позволяет отправлять
+ * несколько запросов, не дожидаясь ответов: ответы сопоставляются с запросами по идентификатору.
  */
 public class Client {
 
@@ -39,6 +43,27 @@ public class Client {
     /** Максимальное количество попыток переподключения */
     private int maxReconnectionAttempts;
 
+    /** Использовать постоянное соединение вместо соединения на каждый запрос */
+    private final boolean persistent;
+
+    /** Формат данных постоянного соединения */
+    private final WireFormat format;
+
+    /** Поток вывода кадров постоянного соединения */
+    private DataOutputStream frameWriter;
+
+    /** Читатель ответов постоянного соединения */
+    private ResponseReader responseReader;
+
+    /**
+     * Время ожидания ответа постоянного соединения в миллисекундах
+     * (параметр -Dclient.response.timeout)
+     */
+    private static final long RESPONSE_TIMEOUT = Long.getLong("client.response.timeout", 30_000);
+
+    /** Генератор идентификаторов запросов */
+    private final AtomicLong requestIds = new AtomicLong();
+
     /**
      * Конструктор клиента.
      *
@@ -48,10 +73,40 @@ public class Client {
      * @param maxReconnectionAttempts максимальное количество попыток переподключения
      */
     public Client(String host, int port, int timeout, int maxReconnectionAttempts) {
+        this(host, port, timeout, maxReconnectionAttempts, false);
+    }
+
+    /**
+     * Конструктор клиента с выбором режима соединения.
+     *
+     * @param host адрес сервера
+     * @param port порт сервера
+     * @param timeout таймаут соединения в миллисекундах
+     * @param maxReconnectionAttempts максимальное количество попыток переподключения
+     * @param persistent true для постоянного соединения с несколькими запросами в полёте
+     */
+    public Client(String host, int port, int timeout, int maxReconnectionAttempts, boolean persistent) {
+        this(host, port, timeout, maxReconnectionAttempts, persistent, WireFormat.SERIAL);
+    }
+
+    /**
+     * Конструктор клиента с выбором режима соединения и формата данных.
+     *
+     * @param host адрес сервера
+     * @param port порт сервера
+     * @param timeout таймаут соединения в миллисекундах
+     * @param maxReconnectionAttempts максимальное количество попыток переподключения
+     * @param persistent true для постоянного соединения с несколькими запросами в полёте
+     * @param format формат данных постоянного соединения
+     */
+    public Client(String host, int port, int timeout, int maxReconnectionAttempts, boolean persistent,
+                  WireFormat format) {
         this.host = host;
         this.port = port;
         this.timeout = timeout;
         this.maxReconnectionAttempts = maxReconnectionAttempts;
+        this.persistent = persistent;
+        this.format = format;
     }
 
     /**
@@ -92,6 +147,9 @@ public class Client {
      * @throws InterruptedException если поток был прерван во время ожидания
      */
     public Response sendRequest(Request request) throws InterruptedException {
+        if (persistent) {
+            return sendPersistent(request);
+        }
         this.connect();
         for (int reconnectionAttempts = 0; reconnectionAttempts < maxReconnectionAttempts; reconnectionAttempts++) {
             try {
@@ -122,4 +180,113 @@ public class Client {
         }
         return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Отправляет запрос через постоянное соединение и дожидается ответа.
+     * Если запрос не удалось отправить, переподключается не более maxReconnectionAttempts раз.
+     * Если запрос отправлен, но ответ не получен (соединение разорвано или сервер не ответил
+     * за {@link #RESPONSE_TIMEOUT} мс), соединение закрывается, а запрос не повторяется:
+     * сервер мог его уже выполнить.
+     *
+     * @param request запрос для отправки
+     * @return ответ от сервера или null при невозможности установить соединение
+     * @throws InterruptedException если поток был прерван во время ожидания
+     */
+    private Response sendPersistent(Request request) throws InterruptedException {
+        for (int reconnectionAttempts = 0; reconnectionAttempts < maxReconnectionAttempts; reconnectionAttempts++) {
+            try {
+                return sendAsync(request).get(RESPONSE_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                closePersistent();
+                System.err.println("Сервер не ответил за " + RESPONSE_TIMEOUT / 1000 + " секунд");
+                return null;
+            } catch (ExecutionException e) {
+                closePersistent();
+                System.err.println("Соединение разорвано после отправки запроса, ответ не получен");
+                return null;
+            } catch (IOException e) {
+                closePersistent();
+                System.err.println("Рекконект через: " + timeout/1000 + " секунд");
+                Thread.sleep(timeout);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Отправляет запрос через постоянное соединение, не дожидаясь ответа.
+     * Соединение устанавливается при первом вызове.
+     *
+     * @param request запрос для отправки
+     * @return ожидание ответа на этот запрос
+     * @throws IOException если запрос не удалось отправить
+     */
+    public CompletableFuture<Response> sendAsync(Request request) throws IOException {
+        ResponseReader reader = connectPersistent();
+        long requestId = requestIds.incrementAndGet();
+        request.setRequestId(requestId);
+        byte[] payload = format == WireFormat.BINARY
+                ? BinaryCodec.encodeRequest(request)
+                : Protocol.serialize(request);
+        CompletableFuture<Response> future = reader.register(requestId);
+        if (future.isCompletedExceptionally()) {
+            // соединение уже разорвано: запрос не отправлялся и его можно повторить после переподключения
+            throw new IOException("Соединение с сервером закрыто");
+        }
+        try {
+            synchronized (this) {
+                frameWriter.writeInt(payload.length);
+                frameWriter.writeLong(requestId);
+                frameWriter.write(payload);
+                frameWriter.flush();
+            }
+        } catch (IOException e) {
+            reader.cancel(requestId);
+            throw e;
+        }
+        return future;
+    }
+
+    /**
+     * Устанавливает постоянное соединение, если оно ещё не установлено,
+     * и запускает поток чтения ответов.
+     *
+     * @return читатель ответов текущего соединения
+     * @throws IOException если не удалось подключиться
+     */
+    private synchronized ResponseReader connectPersistent() throws IOException {
+        if (responseReader != null) {
+            return responseReader;
+        }
+        socket = SocketChannel.open();
+        socket.connect(new InetSocketAddress(host, port));
+        socket.socket().setTcpNoDelay(true);
+        frameWriter = new DataOutputStream(new BufferedOutputStream(socket.socket().getOutputStream()));
+        frameWriter.writeInt(format.getMagic());
+        frameWriter.flush();
+        DataInputStream frameReader = new DataInputStream(new BufferedInputStream(socket.socket().getInputStream()));
+        if (frameReader.readInt() != Protocol.LEGACY_MAGIC) {
+            throw new StreamCorruptedException("Неизвестный ответ сервера");
+        }
+        responseReader = new ResponseReader(frameReader, format);
+        Thread readerThread = new Thread(responseReader, "response-reader");
+        readerThread.setDaemon(true);
+        readerThread.start();
+        return responseReader;
+    }
+
+    /**
+     * Закрывает постоянное соединение; следующий запрос установит новое.
+     */
+    public synchronized void closePersistent() {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            System.err.println("Не подключено к серверу");
+        }
+        responseReader = null;
+        frameWriter = null;
+    }
+}
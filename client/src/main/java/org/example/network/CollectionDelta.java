@@ -0,0 +1,111 @@
+package org.example.network;
+
+import org.example.mainClasses.MusicBand;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Изменения коллекции между двумя версиями для синхронизации копии коллекции на клиенте.
+ * Чтобы получить коллекцию новой версии, клиент удаляет элементы из {@link #getRemoved()},
+ * затем по порядку переносит в конец элементы из {@link #getBands()}, заменяя элементы с теми же ID.
+ * Если изменения получить не удалось (версия клиента слишком старая), передаётся вся коллекция:
+ * {@link #isFull()} возвращает true, а {@link #getBands()} содержит все элементы по порядку.
+ * Должен совпадать с одноимённым классом сервера.
+ */
+public class CollectionDelta implements Serializable {
+
+    /**
+     * Уникальный идентификатор версии сериализации.
+     * Обеспечивает корректную десериализацию между разными версиями класса.
+     */
+    @Serial
+    private static final long serialVersionUID = 22L;
+
+    /** Версия коллекции, от которой отсчитаны изменения */
+    private final long fromVersion;
+
+    /** Версия коллекции после изменений */
+    private final long version;
+
+    /** Признак полной копии коллекции вместо изменений */
+    private final boolean full;
+
+    /** Добавленные и изменённые элементы или вся коллекция */
+    private final List<MusicBand> bands;
+
+    /** ID удалённых элементов */
+    private final List<Long> removed;
+
+    /** Дата инициализации коллекции (входит в результат info) */
+    private final LocalDate date;
+
+    /**
+     * Конструктор изменений коллекции.
+     * @param fromVersion версия, от которой отсчитаны изменения
+     * @param version версия после изменений
+     * @param full true, если передаётся вся коллекция
+     * @param bands добавленные и изменённые элементы или вся коллекция
+     * @param removed ID удалённых элементов
+     * @param date дата инициализации коллекции
+     */
+    public CollectionDelta(long fromVersion, long version, boolean full, List<MusicBand> bands, List<Long> removed,
+                           LocalDate date) {
+        this.fromVersion = fromVersion;
+        this.version = version;
+        this.full = full;
+        this.bands = bands;
+        this.removed = removed;
+        this.date = date;
+    }
+
+    /**
+     * Возвращает версию, от которой отсчитаны изменения.
+     * @return версия коллекции
+     */
+    public long getFromVersion() {
+        return fromVersion;
+    }
+
+    /**
+     * Возвращает версию коллекции после изменений.
+     * @return версия коллекции
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Проверяет, передана ли вся коллекция вместо изменений.
+     * @return true, если передана вся коллекция
+     */
+    public boolean isFull() {
+        return full;
+    }
+
+    /**
+     * Возвращает добавленные и изменённые элементы или всю коллекцию.
+     * @return список элементов
+     */
+    public List<MusicBand> getBands() {
+        return bands;
+    }
+
+    /**
+     * Возвращает ID удалённых элементов.
+     * @return список ID
+     */
+    public List<Long> getRemoved() {
+        return removed;
+    }
+
+    /**
+     * Возвращает дату инициализации коллекции.
+     * @return дата инициализации
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+}
@@ -29,6 +29,15 @@ public class Request implements Serializable {
     /** Пользователь, отправивший запрос */
     User user;
 
+    /** Идентификатор запроса в постоянном соединении (для сопоставления с ответом) */
+    private long requestId;
+
+    /** Токен сессии; запрос с токеном не несёт логин и пароль */
+    private String token;
+
+    /** Версия коллекции, на которой получен сохранённый результат команды, или -1 */
+    private long knownVersion = -1;
+
     /**
      * Конструктор запроса с командой и пользователем.
      *
@@ -136,4 +145,54 @@ public class Request implements Serializable {
     public Object getArgs() {
         return args;
     }
+
+    /**
+     * Возвращает идентификатор запроса.
+     * @return идентификатор запроса или 0, если запрос отправлен вне постоянного соединения
+     */
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Устанавливает идентификатор запроса.
+     * @param requestId идентификатор запроса
+     */
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
+
+    /**
+     * Возвращает версию коллекции, на которой получен сохранённый результат команды.
+     * @return версия коллекции или -1, если сохранённого результата нет
+     */
+    public long getKnownVersion() {
+        return knownVersion;
+    }
+
+    /**
+     * Устанавливает версию коллекции, на которой получен сохранённый результат команды:
+     * если коллекция с тех пор не изменилась, сервер ответит без результата.
+     * @param knownVersion версия коллекции или -1
+     */
+    public void setKnownVersion(long knownVersion) {
+        this.knownVersion = knownVersion;
+    }
+
+    /**
+     * Возвращает токен сессии.
+     * @return токен или null, если запрос несёт логин и пароль
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Переводит запрос на токен сессии: логин и пароль из запроса убираются.
+     * @param token токен сессии, полученный при входе
+     */
+    public void authorize(String token) {
+        this.token = token;
+        this.user = null;
+    }
 }
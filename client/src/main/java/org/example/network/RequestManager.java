@@ -5,6 +5,7 @@ import org.example.builders.UserBuilder;
 import org.example.commands.*;
 import org.example.exceptions.InvalidDataException;
 import org.example.mainClasses.MusicBand;
+import org.example.managers.CollectionReplica;
 import org.example.managers.CommandManager;
 
 import java.io.File;
@@ -17,9 +18,18 @@ import java.util.*;
  */
 public class RequestManager {
 
-    /** Главный пользователь, сессия которого активна */
+    /** Главный пользователь, сессия которого активна (данные нужны для повторного входа) */
     private User mainUser;
 
+    /** Токен сессии, полученный при входе или регистрации */
+    private String token;
+
+    /** Последние ответы читающих команд с версией коллекции (название команды -> ответ) */
+    private final Map<String, Response> readCache = new HashMap<>();
+
+    /** Локальная копия коллекции или null, если читающие команды выполняются на сервере */
+    private CollectionReplica replica;
+
     /**
      * Основной метод для запуска обработки команд пользователя.
      * Включает в себя авторизацию/регистрацию, чтение ввода пользователя,
@@ -49,11 +59,22 @@ public class RequestManager {
         commands.putCommand(new UpdateId());
         commands.putCommand(new Login());
         commands.putCommand(new Register());
+        commands.putCommand(new Sync());
 
         String[] input;
         Scanner scanner = new Scanner(System.in);
 
-        Client client = new Client("localhost", 1782, 5000, 3);
+        // Постоянное соединение можно отключить параметром -Dclient.persistent=false,
+        // формат данных выбирается параметром -Dclient.format=binary|serial
+        boolean persistent = Boolean.parseBoolean(System.getProperty("client.persistent", "true"));
+        WireFormat format = WireFormat.valueOf(System.getProperty("client.format", "binary").toUpperCase());
+        Client client = new Client("localhost", 1782, 5000, 3, persistent, format);
+
+        // Локальная копия коллекции включается параметром -Dclient.replica=true;
+        // -Dclient.replica.period — максимальное время между синхронизациями в миллисекундах
+        if (Boolean.parseBoolean(System.getProperty("client.replica", "false"))) {
+            replica = new CollectionReplica(Long.parseLong(System.getProperty("client.replica.period", "1000")));
+        }
 
         boolean success = false;
 
@@ -74,6 +95,7 @@ public class RequestManager {
                     System.out.println(newResponse.getResult());
                     if (newResponse.getLoginError() != LoginError.LOGIN_ERROR) {
                         success = true;
+                        token = newResponse.getToken();
                         break;
                     } else {
                         break;
@@ -81,6 +103,7 @@ public class RequestManager {
                 }
             } else {
                 success = true;
+                token = response.getToken();
             }
         }
 
@@ -90,7 +113,10 @@ public class RequestManager {
             if (response.getLoginError() == LoginError.LOGIN_ERROR) {
                 System.exit(1);
             }
+            token = response.getToken();
         }
+        // данные входа остаются только на клиенте, для повторного входа при истечении сессии
+        mainUser = user;
 
         System.out.println("Введите help для получения списка команд: ");
 
@@ -110,6 +136,15 @@ public class RequestManager {
 
             Command command = commands.getCommands().get(input[0]);
 
+            if (replica != null && replica.isLocal(input[0]) && input.length == 1) {
+                System.out.println(readLocal(client, command));
+                continue;
+            }
+            if (replica != null) {
+                // команда может изменить коллекцию: следующее чтение сначала синхронизирует копию
+                replica.invalidate();
+            }
+
             if (!command.isHasArgs()) {
                 if (input.length != 1) {
                     System.err.println("у этой команды не должно быть аргументов");
@@ -119,11 +154,11 @@ public class RequestManager {
                 if (input[0].equals("add")) {
                     MusicBand band = new MusicBandsBuilder().create();
                     band.setUserLogin(user.getLogin());
-                    System.out.println(client.sendRequest(new Request(command, band, user)).getResult());
+                    System.out.println(send(client, new Request(command, band, user)).getResult());
                 } else {
                     try {
                         Request request = new Request(command, user);
-                        System.out.println(client.sendRequest(request).getResult());
+                        System.out.println(read(client, request).getResult());
                     } catch (NullPointerException e) {
                         System.out.println("Клиент не смог подключиться к серверу");
                         System.exit(505);
@@ -143,12 +178,12 @@ public class RequestManager {
                 if (input[0].equals("update")) {
                     MusicBand band = new MusicBandsBuilder().create();
                     band.setUserLogin(user.getLogin());
-                    System.out.println(client.sendRequest(new Request(command, band, id, user)).getResult());
+                    System.out.println(send(client, new Request(command, band, id, user)).getResult());
                     continue;
                 }
 
-                if (input[0].equals("remove_at") || input[0].equals("remove_by_id")) {
-                    System.out.println(client.sendRequest(new Request(command, id, user)).getResult());
+                if (input[0].equals("remove_at") || input[0].equals("remove_by_id") || input[0].equals("sync")) {
+                    System.out.println(send(client, new Request(command, id, user)).getResult());
                 }
 
             } else {
@@ -161,9 +196,87 @@ public class RequestManager {
                 }
 
                 Request request = new Request(command, scriptName, user);
-                System.out.println(client.sendRequest(request).getResult());
+                System.out.println(send(client, request).getResult());
+            }
+        }
+    }
+
+    /**
+     * Отправляет запрос команды с токеном сессии вместо логина и пароля.
+     * Если сессия истекла, выполняет повторный вход по сохранённым данным и повторяет запрос:
+     * команда с недействительным токеном сервером не выполняется, поэтому повтор безопасен.
+     *
+     * @param client  клиент
+     * @param request запрос команды
+     * @return ответ сервера или null, если сервер недоступен
+     * @throws InterruptedException если поток был прерван
+     */
+    private Response send(Client client, Request request) throws InterruptedException {
+        request.authorize(token);
+        Response response = client.sendRequest(request);
+        if (response != null && response.getLoginError() == LoginError.LOGIN_ERROR) {
+            Response login = client.sendRequest(new Request(new Login(), mainUser));
+            if (login != null && login.getLoginError() == null && login.getToken() != null) {
+                token = login.getToken();
+                request.authorize(token);
+                response = client.sendRequest(request);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Отправляет запрос команды без аргументов с версией коллекции, на которой получен сохранённый
+     * ответ этой команды. Если коллекция не изменилась, сервер не передаёт результат заново,
+     * и возвращается сохранённый ответ. Сохраняются только ответы, помеченные сервером версией.
+     *
+     * @param client  клиент
+     * @param request запрос команды
+     * @return ответ сервера, сохранённый ответ или null, если сервер недоступен
+     * @throws InterruptedException если поток был прерван
+     */
+    private Response read(Client client, Request request) throws InterruptedException {
+        String name = request.getCommand().getName();
+        Response cached = readCache.get(name);
+        request.setKnownVersion(cached == null ? -1 : cached.getVersion());
+        Response response = send(client, request);
+        if (response == null) {
+            return null;
+        }
+        if (response.isNotModified() && cached != null) {
+            return cached;
+        }
+        if (response.getVersion() >= 0 && !response.isNotModified()) {
+            readCache.put(name, response);
+        }
+        return response;
+    }
+
+    /**
+     * Выполняет читающую команду по локальной копии коллекции, предварительно получив
+     * изменения с сервера, если копия устарела. Если сервер недоступен, отвечает по уже
+     * полученной копии.
+     *
+     * @param client  клиент
+     * @param command читающая команда
+     * @return результат команды
+     * @throws InterruptedException если поток был прерван
+     */
+    private String readLocal(Client client, Command command) throws InterruptedException {
+        if (replica.isStale()) {
+            Response response = send(client, new Request(new Sync(), (Object) replica.getVersion(), null));
+            if (response == null) {
+                if (replica.getVersion() < 0) {
+                    return "Клиент не смог подключиться к серверу";
+                }
+            } else if (response.getDelta() == null) {
+                // сервер не передал изменения (например, коллекция не уместилась в кадр)
+                return response.getResult();
+            } else {
+                replica.apply(response.getDelta());
             }
         }
+        return replica.answer(command.getName());
     }
 
     /**
@@ -16,6 +16,18 @@ public class Response implements Serializable {
     /** Поле, указывающее на наличие ошибки при входе в систему */
     private LoginError loginError;
 
+    /** Токен сессии, выданный при входе или регистрации */
+    private String token;
+
+    /** Версия коллекции, на которой получен результат, или -1, если результат не сохраняется */
+    private long version = -1;
+
+    /** Признак того, что результат не изменился с версии из запроса и не передан */
+    private boolean notModified;
+
+    /** Изменения коллекции (ответ на sync) или null */
+    private CollectionDelta delta;
+
     /** Результат выполнения команды, по умолчанию — "Успешно" */
     private String result = "Успешно";
 
@@ -56,4 +68,76 @@ public class Response implements Serializable {
     public LoginError getLoginError() {
         return loginError;
     }
+
+    /**
+     * Возвращает версию коллекции, на которой получен результат.
+     *
+     * @return версия коллекции или -1, если результат не стоит сохранять
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Устанавливает версию коллекции, на которой получен результат.
+     *
+     * @param version версия коллекции
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Проверяет, что результат не изменился с версии из запроса: его нужно взять из сохранённого ответа.
+     *
+     * @return true, если результат не передан
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Устанавливает признак неизменившегося результата.
+     *
+     * @param notModified true, если результат не передан
+     */
+    public void setNotModified(boolean notModified) {
+        this.notModified = notModified;
+    }
+
+    /**
+     * Возвращает изменения коллекции.
+     *
+     * @return изменения коллекции или null, если ответ их не содержит
+     */
+    public CollectionDelta getDelta() {
+        return delta;
+    }
+
+    /**
+     * Устанавливает изменения коллекции.
+     *
+     * @param delta изменения коллекции
+     */
+    public void setDelta(CollectionDelta delta) {
+        this.delta = delta;
+    }
+
+    /**
+     * Возвращает токен сессии.
+     *
+     * @return токен или null, если ответ не открывает сессию
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Устанавливает токен сессии.
+     *
+     * @param token токен сессии
+     */
+    public void setToken(String token) {
+        this.token = token;
+    }
 }
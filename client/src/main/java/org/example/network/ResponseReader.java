@@ -0,0 +1,112 @@
+package org.example.network;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Класс для чтения ответов от сервера в отдельном потоке.
+ * Читает кадры постоянного соединения и по идентификатору запроса передаёт каждый ответ
+ * ожидающему его отправителю, поэтому ответы могут приходить в любом порядке.
+ */
+public class ResponseReader implements Runnable {
+
+    /**
+     * Поток ввода для чтения кадров с ответами
+     */
+    private final DataInputStream in;
+
+    /**
+     * Формат данных в кадрах
+     */
+    private final WireFormat format;
+
+    /**
+     * Запросы, ожидающие ответа (идентификатор запроса -> ожидание ответа)
+     */
+    private final Map<Long, CompletableFuture<Response>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Соединение закрыто, новые ответы не придут
+     */
+    private boolean closed;
+
+    /**
+     * Конструктор ResponseReader.
+     *
+     * @param in поток ввода для чтения ответов
+     * @param format формат данных в кадрах
+     */
+    public ResponseReader(DataInputStream in, WireFormat format) {
+        this.in = in;
+        this.format = format;
+    }
+
+    /**
+     * Регистрирует запрос, ответ на который нужно дождаться.
+     *
+     * @param requestId идентификатор запроса
+     * @return ожидание ответа; завершается с ошибкой, если соединение разорвано
+     */
+    public synchronized CompletableFuture<Response> register(long requestId) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IOException("Соединение с сервером закрыто"));
+        } else {
+            pending.put(requestId, future);
+        }
+        return future;
+    }
+
+    /**
+     * Отменяет ожидание ответа на запрос (например, если его не удалось отправить).
+     *
+     * @param requestId идентификатор запроса
+     */
+    public void cancel(long requestId) {
+        pending.remove(requestId);
+    }
+
+    /**
+     * Основной метод выполнения потока.
+     * Читает кадры до разрыва соединения и завершает соответствующие ожидания.
+     */
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                int length = in.readInt();
+                long requestId = in.readLong();
+                if (length < 0 || length > Protocol.MAX_FRAME_SIZE) {
+                    throw new StreamCorruptedException("Недопустимый размер кадра: " + length);
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                Response response = format == WireFormat.BINARY
+                        ? BinaryCodec.decodeResponse(payload, 0, length)
+                        : (Response) Protocol.deserialize(payload, 0, length);
+                CompletableFuture<Response> future = pending.remove(requestId);
+                if (future != null) {
+                    future.complete(response);
+                }
+            }
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            // любая ошибка останавливает чтение: ожидающие запросы не должны ждать до истечения таймаута
+            failPending(new IOException("Ошибка чтения ответа от сервера", e));
+        }
+    }
+
+    /**
+     * Завершает с ошибкой все ожидающие запросы.
+     *
+     * @param cause причина ошибки
+     */
+    private synchronized void failPending(IOException cause) {
+        closed = true;
+        pending.values().forEach(future -> future.completeExceptionally(cause));
+        pending.clear();
+    }
+}
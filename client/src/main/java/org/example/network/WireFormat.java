@@ -0,0 +1,28 @@
+package org.example.network;
+
+/**
+ * Формат данных в кадрах постоянного соединения.
+ * Выбирается клиентом при подключении и сообщается серверу первыми байтами соединения.
+ */
+public enum WireFormat {
+    /** Сериализация Java */
+    SERIAL(Protocol.PERSISTENT_MAGIC),
+    /** Компактный двоичный формат {@link BinaryCodec} */
+    BINARY(Protocol.BINARY_MAGIC);
+
+    /** Признак формата, отправляемый серверу при подключении */
+    private final int magic;
+
+    WireFormat(int magic) {
+        this.magic = magic;
+    }
+
+    /**
+     * Возвращает признак формата для начала соединения.
+     *
+     * @return признак формата
+     */
+    public int getMagic() {
+        return magic;
+    }
+}
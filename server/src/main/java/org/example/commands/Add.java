@@ -7,9 +7,12 @@ import org.example.exceptions.InvalidDataException;
 import org.example.managers.DataBaseManager;
 import org.example.network.Request;
 import org.example.network.Response;
+import org.example.network.User;
 
 import java.io.Serial;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Класс команды "add", реализует добавление нового элемента в коллекцию.
@@ -38,6 +41,11 @@ public class Add extends Command implements Serializable {
         this.dataBaseManager = dataBaseManager;
     }
 
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
     /**
      * Выполняет команду добавления.
      * Получает объект MusicBand из запроса, добавляет его в базу данных и в коллекцию.
@@ -49,6 +57,7 @@ public class Add extends Command implements Serializable {
     public Response execute(Request request) {
         try {
             MusicBand band = request.getMusicBand(); // Получение музыкальной группы из запроса
+            band.setUserLogin(request.getUser().getLogin()); // Владелец — автор запроса
             int id = dataBaseManager.addbands(band, request.getUser()); // Добавление в базу данных
             if (id == -1) {
                 return new Response("Не удалось добавить объект"); // Ошибка при добавлении
@@ -60,4 +69,48 @@ public class Add extends Command implements Serializable {
             return new Response("Объект не создан. Проверьте правильность данных"); // Исключение при некорректных данных
         }
     }
+
+    /**
+     * Добавляет несколько музыкальных групп одним пакетным запросом к базе данных
+     * (используется при выполнении скрипта). Некорректные группы отклоняются до обращения к базе.
+     *
+     * @param bands музыкальные группы в порядке добавления
+     * @param user пользователь, добавляющий группы
+     * @return ответы для каждой группы в том же порядке
+     */
+    public List<Response> executeAll(List<MusicBand> bands, User user) {
+        List<Response> responses = new ArrayList<>(bands.size());
+        List<MusicBand> valid = new ArrayList<>(bands.size());
+        boolean[] isValid = new boolean[bands.size()];
+        for (int i = 0; i < bands.size(); i++) {
+            MusicBand band = bands.get(i);
+            band.setUserLogin(user.getLogin());
+            isValid[i] = band.validate();
+            if (isValid[i]) {
+                valid.add(band);
+            }
+        }
+
+        List<Long> ids = dataBaseManager.addBands(valid, user); // Один пакет в одной транзакции
+        boolean added = ids.size() == valid.size();
+        if (added) {
+            for (int i = 0; i < valid.size(); i++) {
+                valid.get(i).setId(ids.get(i));
+            }
+            try {
+                collectionManager.addElem(valid);
+            } catch (InvalidDataException e) {
+                added = false; // не происходит: группы проверены заранее
+            }
+        }
+
+        for (int i = 0; i < bands.size(); i++) {
+            if (!isValid[i]) {
+                responses.add(new Response("Объект не создан. Проверьте правильность данных"));
+            } else {
+                responses.add(new Response(added ? "Объект добавлен в коллекцию!" : "Не удалось добавить объект"));
+            }
+        }
+        return responses;
+    }
 }
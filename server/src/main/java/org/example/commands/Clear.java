@@ -1,7 +1,6 @@
 package org.example.commands;
 
 import org.example.exceptions.AlreadyEmptyException;
-import org.example.mainClasses.MusicBand;
 import org.example.managers.CollectionManager;
 import org.example.managers.DataBaseManager;
 import org.example.network.Request;
@@ -38,6 +37,11 @@ public class Clear extends Command implements Serializable {
         this.dataBaseManager = dataBaseManager;
     }
 
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
     /**
      * Выполняет очистку коллекции, удаляя только те элементы, которые принадлежат пользователю.
      *
@@ -46,17 +50,15 @@ public class Clear extends Command implements Serializable {
      */
     @Override
     public Response execute(Request request) {
-        // Получаем все ID объектов в коллекции, принадлежащих пользователю
-        List<Long> ids = collectionManager.getBands().stream()
-                .filter(musicBand -> musicBand.getUserLogin().equals(request.getUser().getLogin()))
-                .map(MusicBand::getId)
-                .toList();
+        // Получаем все ID объектов пользователя по индексу владельцев
+        List<Long> ids = collectionManager.getIdsByOwner(request.getUser().getLogin());
 
-        // Удаляем эти объекты из базы данных
-        if (dataBaseManager.deleteUserObjects(request.getUser(), ids)) {
-            // Если успешно удалено из БД, удаляем и из памяти
-            collectionManager.removeElements(ids);
-            return new Response("Элементы удалены!");
+        // Удаляем эти объекты из базы данных одним запросом
+        List<Long> deleted = dataBaseManager.deleteUserObjects(request.getUser(), ids);
+        if (!deleted.isEmpty()) {
+            // Из памяти удаляем ровно те объекты, которые удалены из БД
+            collectionManager.removeElements(deleted);
+            return new Response("Элементы удалены! Количество: " + deleted.size());
         }
 
         // Если в коллекции нет объектов пользователя
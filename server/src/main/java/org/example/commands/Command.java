@@ -58,4 +58,36 @@ public abstract class Command implements Serializable {
      * @return объект ответа, содержащий результат выполнения
      */
     public abstract Response execute(Request request);
+
+    /**
+     * Показывает, обращается ли команда к базе данных.
+     * Такие команды выполняются с ограничением параллельности (см. RunManager).
+     *
+     * @return true, если команда работает с базой данных
+     */
+    public boolean usesDataBase() {
+        return false;
+    }
+
+    /**
+     * Показывает, выполняется ли команда только в открытой сессии.
+     * Запрос такой команды должен нести действительный токен сессии (см. SessionManager),
+     * а вход и регистрация выполняются по логину и паролю.
+     *
+     * @return true, если команде нужна сессия
+     */
+    public boolean requiresSession() {
+        return true;
+    }
+
+    /**
+     * Показывает, можно ли выдавать результат команды из кеша, пока коллекция не изменилась.
+     * Такая команда только читает коллекцию, а её результат зависит лишь от аргументов и версии
+     * коллекции (см. ResponseCache).
+     *
+     * @return true, если результат команды можно кешировать
+     */
+    public boolean isCacheable() {
+        return false;
+    }
 }
@@ -9,6 +9,8 @@ import org.example.network.Response;
 import org.example.utility.FileMode;
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 /**
@@ -27,9 +29,16 @@ public class ExecuteScript extends Command implements Serializable {
         this.commandManager = commandManager;
     }
 
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
     public Response execute(Request request) {
         String path = ((String) request.getArgs()).trim();
         StringBuilder stringBuilder = new StringBuilder();
+        // Подряд идущие команды add копятся и добавляются в базу одним пакетом
+        List<MusicBand> pendingBands = new ArrayList<>();
 
         try {
             FileMode.setFileMode(true);
@@ -60,6 +69,13 @@ public class ExecuteScript extends Command implements Serializable {
                 Command command = commandManager.getCommands().get(cmd[0]);
                 if (command == null) continue;
 
+                if (cmd[0].equals("add") && command instanceof Add) {
+                    pendingBands.add(new MusicBandsBuilder().create());
+                    continue;
+                }
+                // Перед любой другой командой накопленные группы добавляются, чтобы сохранить порядок
+                flushAdds(pendingBands, request, stringBuilder);
+
                 Response response;
                 switch (cmd[0]) {
                     case "remove_by_id":
@@ -68,13 +84,6 @@ public class ExecuteScript extends Command implements Serializable {
                                 Integer.parseInt(cmd[1]),
                                 request.getUser()));
                         break;
-                    case "add":
-                        MusicBand band = new MusicBandsBuilder().create();
-                        response = commandManager.execute(new Request(
-                                command,
-                                band,
-                                request.getUser()));
-                        break;
                     case "update":
                         MusicBand updateBand = new MusicBandsBuilder().create();
                         response = commandManager.execute(new Request(
@@ -98,6 +107,7 @@ public class ExecuteScript extends Command implements Serializable {
                 }
             }
 
+            flushAdds(pendingBands, request, stringBuilder);
             FileMode.setFileMode(false);
             return new Response(stringBuilder.toString());
 
@@ -107,6 +117,28 @@ public class ExecuteScript extends Command implements Serializable {
             return new Response("Ошибка чтения файла");
         } catch (NumberFormatException e) {
             return new Response("Неверный формат числа в аргументе команды");
+        } finally {
+            // группы, прочитанные до ошибки, добавляются, как и при построчном выполнении
+            // (при успешном выполнении список уже пуст)
+            flushAdds(pendingBands, request, stringBuilder);
+        }
+    }
+
+    /**
+     * Добавляет накопленные группы одним пакетом и дописывает ответы в результат скрипта.
+     *
+     * @param pendingBands накопленные группы (очищается)
+     * @param request запрос выполнения скрипта (для пользователя)
+     * @param stringBuilder результат выполнения скрипта
+     */
+    private void flushAdds(List<MusicBand> pendingBands, Request request, StringBuilder stringBuilder) {
+        if (pendingBands.isEmpty()) {
+            return;
+        }
+        Add add = (Add) commandManager.getCommands().get("add");
+        for (Response response : add.executeAll(pendingBands, request.getUser())) {
+            stringBuilder.append(response.getResult()).append("\n\n");
         }
+        pendingBands.clear();
     }
-}
\ No newline at end of file
+}
@@ -20,6 +20,9 @@ public class GroupCountingByLabel extends Command implements Serializable {
     // Менеджер коллекции, содержащей элементы, которые нужно сгруппировать
     private final CollectionManager collectionManager;
 
+    // Аргумент, при котором выводится только количество элементов в группах
+    private static final String COUNT_ONLY = "count";
+
     /**
      * Конструктор команды group_counting_by_label.
      *
@@ -30,9 +33,15 @@ public class GroupCountingByLabel extends Command implements Serializable {
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     /**
      * Метод выполнения команды. Пытается сгруппировать элементы коллекции по полю label.
      * Если коллекция пуста, возвращается соответствующее сообщение.
+     * С аргументом "count" (например, из скрипта) выводится только количество элементов в группах.
      *
      * @param request объект запроса с пользовательскими данными
      * @return результат группировки или сообщение об ошибке
@@ -40,7 +49,8 @@ public class GroupCountingByLabel extends Command implements Serializable {
     @Override
     public Response execute(Request request) {
         try {
-            return new Response(collectionManager.groupByLabel()); // Выполнение логики группировки
+            boolean countOnly = COUNT_ONLY.equals(request.getArgs());
+            return new Response(collectionManager.groupByLabel(!countOnly)); // Выполнение логики группировки
         } catch (EmptyCollectionException e) {
             return new Response("Коллекция пуста!"); // Возвращает сообщение, если коллекция не содержит элементов
         }
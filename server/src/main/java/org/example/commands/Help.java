@@ -35,6 +35,11 @@ public class Help extends Command implements Serializable {
         this.commandManager = commandManager;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     /**
      * Выполняет команду help. Формирует строку с описаниями всех доступных команд.
      *
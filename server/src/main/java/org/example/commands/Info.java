@@ -30,6 +30,11 @@ public class Info extends Command implements Serializable {
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     /**
      * Выполняет команду info. Получает сведения о коллекции через менеджер и возвращает их пользователю.
      *
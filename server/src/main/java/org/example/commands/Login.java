@@ -1,6 +1,7 @@
 package org.example.commands;
 
 import org.example.managers.DataBaseManager;
+import org.example.managers.SessionManager;
 import org.example.network.LoginError;
 import org.example.network.Request;
 import org.example.network.Response;
@@ -20,19 +21,35 @@ public class Login extends Command implements Serializable {
     // Менеджер работы с базой данных, используется для проверки существования пользователя
     private final DataBaseManager dataBaseManager;
 
+    // Менеджер сессий, открывает сессию после успешной проверки
+    private final SessionManager sessionManager;
+
     /**
      * Конструктор команды login.
      *
      * @param dataBaseManager менеджер базы данных, через который производится проверка пользователя
+     * @param sessionManager менеджер сессий
      */
-    public Login(DataBaseManager dataBaseManager) {
+    public Login(DataBaseManager dataBaseManager, SessionManager sessionManager) {
         super("login", "Войти в аккаунт");
         this.dataBaseManager = dataBaseManager;
+        this.sessionManager = sessionManager;
+    }
+
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
+    @Override
+    public boolean requiresSession() {
+        return false;
     }
 
     /**
      * Выполняет проверку существования пользователя в базе данных.
-     * Если пользователь найден — возвращается сообщение об успешной авторизации.
+     * Если пользователь найден — открывается сессия и возвращается сообщение об успешной авторизации
+     * с токеном сессии.
      * В противном случае — сообщение об ошибке авторизации.
      *
      * @param request объект запроса, содержащий пользователя для проверки
@@ -41,7 +58,9 @@ public class Login extends Command implements Serializable {
     @Override
     public Response execute(Request request) {
         if (dataBaseManager.existUser(request.getUser())) {
-            return new Response("Авторизация успешна!");
+            Response response = new Response("Авторизация успешна!");
+            response.setToken(sessionManager.open(request.getUser().getLogin()));
+            return response;
         } else {
             return new Response(LoginError.LOGIN_ERROR, "Авторизация не прошла");
         }
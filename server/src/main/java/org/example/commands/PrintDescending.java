@@ -30,6 +30,11 @@ public class PrintDescending extends Command implements Serializable {
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     /**
      * Выполняет команду вывода элементов в порядке убывания.
      * В случае пустой коллекции возвращает сообщение об ошибке.
@@ -31,6 +31,11 @@ public class PrintFieldAscendingLabel extends Command implements Serializable {
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     /**
      * Выполняет команду вывода значений поля label всех элементов коллекции
      * в порядке возрастания. Если коллекция пуста — сообщает об этом.
@@ -1,6 +1,7 @@
 package org.example.commands;
 
 import org.example.managers.DataBaseManager;
+import org.example.managers.SessionManager;
 import org.example.network.LoginError;
 import org.example.network.Request;
 import org.example.network.Response;
@@ -28,30 +29,48 @@ public class Register extends Command implements Serializable {
      */
     private final DataBaseManager dataBaseManager;
 
+    /**
+     * Менеджер сессий, открывает сессию нового пользователя
+     */
+    private final SessionManager sessionManager;
+
     /**
      * Конструктор команды register.
      *
      * @param dataBaseManager менеджер для работы с базой данных пользователей
+     * @param sessionManager менеджер сессий
      */
-    public Register(DataBaseManager dataBaseManager) {
+    public Register(DataBaseManager dataBaseManager, SessionManager sessionManager) {
         super("register", "Зарегистрировать пользователя");
         this.dataBaseManager = dataBaseManager;
+        this.sessionManager = sessionManager;
+    }
+
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
+    @Override
+    public boolean requiresSession() {
+        return false;
     }
 
     /**
      * Выполняет регистрацию нового пользователя.
-     * Проверяет наличие пользователя в базе данных и сохраняет новые учетные данные.
+     * Добавляет пользователя одним запросом, если логин свободен (пароль хешируется один раз).
      *
      * @param request объект запроса, содержащий данные пользователя
      * @return объект Response с результатом выполнения операции:
-     *         - сообщение об успешной регистрации
+     *         - сообщение об успешной регистрации и токен сессии
      *         - сообщение об ошибке, если логин уже занят
      */
     @Override
     public Response execute(Request request) {
-        if (!dataBaseManager.existUser(request.getUser())) {
-            dataBaseManager.addUser(request.getUser());
-            return new Response("Регистрация успешна!");
+        if (dataBaseManager.addUser(request.getUser())) {
+            Response response = new Response("Регистрация успешна!");
+            response.setToken(sessionManager.open(request.getUser().getLogin()));
+            return response;
         }
         return new Response(LoginError.LOGIN_ERROR, "Логин уже занят, введите новые данные");
     }
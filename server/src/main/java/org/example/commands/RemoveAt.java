@@ -49,6 +49,11 @@ public class RemoveAt extends Command implements Serializable {
         this.dataBaseManager = dataBaseManager;
     }
 
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
     /**
      * Выполняет удаление элемента по указанному индексу.
      * Проверяет права пользователя перед удалением и удаляет элемент
@@ -63,11 +68,23 @@ public class RemoveAt extends Command implements Serializable {
     @Override
     public Response execute(Request request) {
         try {
-            long num = (long) request.getArgs();
-            MusicBand band = collectionManager.getBands().get((int) num);
+            // из скрипта индекс приходит строкой, из консоли клиента - числом
+            Object args = request.getArgs();
+            long num = args instanceof Number number
+                    ? number.longValue()
+                    : Long.parseLong(String.valueOf(args).trim());
+            // проверка до приведения к int: иначе, например, 4294967296 превратилось бы в индекс 0
+            if (num < 0 || num > Integer.MAX_VALUE) {
+                throw new NoElementException();
+            }
+            MusicBand band = collectionManager.getAt((int) num);
+            if (!request.getUser().getLogin().equals(band.getUserLogin())) {
+                return new Response("Объект принадлежит другому пользователю");
+            }
 
             if (dataBaseManager.deleteObject(request.getUser(), band.getId())) {
-                collectionManager.removeAt((int) num);
+                // Удаляем по id: пока шло удаление из БД, индекс элемента мог сместиться
+                collectionManager.removeById(band.getId());
                 return new Response("Объект успешно удален!");
             } else {
                 return new Response("Объект не удален");
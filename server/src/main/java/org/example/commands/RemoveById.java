@@ -36,6 +36,11 @@ public class RemoveById extends Command implements Serializable {
         this.dataBaseManager = dataBaseManager;
     }
 
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
     /**
      * Выполняет удаление элемента по id. Проверяет наличие доступа через базу данных,
      * а затем удаляет элемент из коллекции. В случае отсутствия элемента выбрасывается исключение.
@@ -46,10 +51,17 @@ public class RemoveById extends Command implements Serializable {
     @Override
     public Response execute(Request request) {
         try {
+            long id = ((Number) request.getArgs()).longValue();
+
+            // Чужие объекты отклоняем по данным в памяти, не обращаясь к БД
+            if (!collectionManager.isOwner(id, request.getUser().getLogin())) {
+                return new Response("Элемент принадлежит другому пользователю");
+            }
+
             // Пытаемся удалить элемент в базе данных по id и пользователю
-            if (dataBaseManager.deleteObject(request.getUser(), (long) request.getArgs())) {
+            if (dataBaseManager.deleteObject(request.getUser(), id)) {
                 // Удаляем элемент из коллекции в памяти
-                collectionManager.removeById((long) request.getArgs());
+                collectionManager.removeById(id);
                 return new Response("Элемент успешно удален");
             } else {
                 return new Response("Элемент не удален");
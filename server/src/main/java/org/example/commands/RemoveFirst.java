@@ -1,6 +1,8 @@
 package org.example.commands;
 
 import org.example.exceptions.EmptyCollectionException;
+import org.example.exceptions.NoElementException;
+import org.example.mainClasses.MusicBand;
 import org.example.managers.CollectionManager;
 import org.example.managers.DataBaseManager;
 import org.example.network.Request;
@@ -36,6 +38,11 @@ public class RemoveFirst extends Command implements Serializable {
         this.dataBaseManager = databaseManager;
     }
 
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
     /**
      * Выполняет удаление первого элемента из коллекции.
      * Сначала удаляет элемент в базе данных, затем в памяти.
@@ -46,15 +53,20 @@ public class RemoveFirst extends Command implements Serializable {
     @Override
     public Response execute(Request request) {
         try {
-            // Получаем ID первого элемента и пробуем удалить его из базы данных
-            if (dataBaseManager.deleteObject(request.getUser(), collectionManager.getFirstId())) {
-                // Если успешно удалено из БД, удаляем также из коллекции в памяти
-                collectionManager.removeFirst();
+            // Получаем первый элемент и пробуем удалить его из базы данных
+            MusicBand first = collectionManager.getFirst();
+            // Чужой элемент отклоняем по данным в памяти, не обращаясь к БД
+            if (!request.getUser().getLogin().equals(first.getUserLogin())) {
+                return new Response("Первый элемент принадлежит другому пользователю");
+            }
+            if (dataBaseManager.deleteObject(request.getUser(), first.getId())) {
+                // Если успешно удалено из БД, удаляем этот же элемент из коллекции в памяти
+                collectionManager.removeById(first.getId());
                 return new Response("Элемент успешно удален!");
             } else {
                 return new Response("Элемент не удален");
             }
-        } catch (EmptyCollectionException e) {
+        } catch (EmptyCollectionException | NoElementException e) {
             // Обработка случая, когда коллекция пуста
             return new Response("Коллекция пуста!");
         }
@@ -30,6 +30,11 @@ public class Show extends Command implements Serializable {
         this.collectionManager = collectionManager;
     }
 
+    @Override
+    public boolean isCacheable() {
+        return true;
+    }
+
     @Override
     public Response execute(Request request) {
         try {
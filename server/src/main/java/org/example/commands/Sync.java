@@ -0,0 +1,50 @@
+package org.example.commands;
+
+import org.example.managers.CollectionManager;
+import org.example.network.CollectionDelta;
+import org.example.network.Request;
+import org.example.network.Response;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * Команда 'sync' - передаёт клиенту изменения коллекции после указанной версии.
+ * Если журнал изменений уже не покрывает эту версию, передаётся вся коллекция.
+ */
+public class Sync extends Command implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1351L;
+
+    /** Менеджер коллекции, ведущий журнал изменений */
+    private final CollectionManager collectionManager;
+
+    /**
+     * Конструктор команды sync.
+     *
+     * @param collectionManager менеджер коллекции
+     */
+    public Sync(CollectionManager collectionManager) {
+        super("sync", "sync version : получить изменения коллекции после версии version");
+        this.collectionManager = collectionManager;
+    }
+
+    /**
+     * Выполняет команду sync. Версия передаётся аргументом; без аргумента передаётся вся коллекция.
+     *
+     * @param request объект запроса с версией коллекции, известной клиенту
+     * @return объект ответа с изменениями коллекции и их кратким описанием
+     */
+    @Override
+    public Response execute(Request request) {
+        long from = request.getArgs() instanceof Long version ? version : -1;
+        CollectionDelta delta = collectionManager.changesSince(from);
+        Response response = new Response(delta.isFull()
+                ? "Коллекция целиком: " + delta.getBands().size() + " элементов, версия " + delta.getVersion()
+                : "Изменения с версии " + from + " по " + delta.getVersion() + ": добавлено или изменено "
+                        + delta.getBands().size() + ", удалено " + delta.getRemoved().size());
+        response.setDelta(delta);
+        return response;
+    }
+}
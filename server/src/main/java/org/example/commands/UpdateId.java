@@ -37,6 +37,11 @@ public class UpdateId extends Command implements Serializable {
         this.dataBaseManager = dataBaseManager;
     }
 
+    @Override
+    public boolean usesDataBase() {
+        return true;
+    }
+
     /**
      * Выполняет обновление элемента коллекции.
      * Сначала обновляет данные в базе, затем — в памяти.
@@ -47,7 +52,13 @@ public class UpdateId extends Command implements Serializable {
     @Override
     public Response execute(Request request) {
         try {
-            Long id = (Long) request.getArgs();
+            long id = ((Number) request.getArgs()).longValue();
+
+            // Чужие объекты отклоняем по данным в памяти, не обращаясь к БД
+            if (!collectionManager.isOwner(id, request.getUser().getLogin())) {
+                return new Response("Объект принадлежит другому пользователю");
+            }
+            request.getMusicBand().setUserLogin(request.getUser().getLogin());
 
             // Сначала пробуем обновить объект в БД
             if (dataBaseManager.updateObject(id, request.getUser(), request.getMusicBand())) {
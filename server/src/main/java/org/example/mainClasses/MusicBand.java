@@ -122,6 +122,15 @@ public class MusicBand implements Validatable, Comparable<MusicBand>, Serializab
         return userLogin;
     }
 
+    /**
+     * Устанавливает логин пользователя, создавшего элемент.
+     *
+     * @param userLogin логин владельца
+     */
+    public void setUserLogin(String userLogin) {
+        this.userLogin = userLogin;
+    }
+
 
     /**
      * Возвращает лейбл музыкальной группы.
@@ -238,6 +247,33 @@ public class MusicBand implements Validatable, Comparable<MusicBand>, Serializab
         return this.numberOfParticipants;
     }
 
+    /**
+     * Проверяет, задано ли количество участников.
+     *
+     * @return true, если количество участников указано
+     */
+    public boolean hasNumberOfParticipants() {
+        return this.numberOfParticipants != null;
+    }
+
+    /**
+     * Возвращает дату создания записи о музыкальной группе.
+     *
+     * @return дата создания записи
+     */
+    public LocalDateTime getCreationDateTime() {
+        return this.creationDate;
+    }
+
+    /**
+     * Возвращает дату основания музыкальной группы.
+     *
+     * @return дата основания или null, если она не указана
+     */
+    public Date getEstablishmentDate() {
+        return this.establishmentDate;
+    }
+
     /**
      * Возвращает координаты музыкальной группы.
      *
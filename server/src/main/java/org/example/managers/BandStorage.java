@@ -0,0 +1,398 @@
+package org.example.managers;
+
+import org.example.mainClasses.MusicBand;
+import org.example.utility.LongHashMap;
+
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Хранилище элементов коллекции в порядке добавления с индексом по ID.
+ * Порядок хранится в декартовом дереве по неявному ключу (позиции): каждый узел знает размер
+ * своего поддерева и родителя, поэтому доступ и удаление по позиции выполняются за O(log n).
+ * Индекс {@link LongHashMap} хранит узел каждого элемента, поэтому поиск по ID выполняется за O(1)
+ * без упаковки ключей, а добавление и удаление по ID — за O(log n).
+ * Вместе с порядком поддерживаются вторичные индексы по лейблу ({@link LabelIndex}),
+ * по владельцу ({@link OwnerIndex}) и отсортированные представления ({@link SortedViews}).
+ * Не потокобезопасно: используется {@link CollectionManager} под его блокировкой.
+ */
+public class BandStorage implements Iterable<MusicBand> {
+
+    /**
+     * Узел дерева элементов.
+     */
+    private static final class Node {
+        private final MusicBand band;
+        private final int priority;
+        private Node left;
+        private Node right;
+        private Node parent;
+        private int size = 1;
+
+        private Node(MusicBand band, int priority) {
+            this.band = band;
+            this.priority = priority;
+        }
+    }
+
+    /** Индекс узлов по ID элемента */
+    private final LongHashMap<Node> index = new LongHashMap<>();
+
+    /** Корень дерева */
+    private Node root;
+
+    /** Индекс элементов по лейблу */
+    private final LabelIndex labels = new LabelIndex();
+
+    /** Индекс элементов по владельцу */
+    private final OwnerIndex owners = new OwnerIndex();
+
+    /** Отсортированные представления элементов */
+    private final SortedViews sorted = new SortedViews();
+
+    /**
+     * Добавляет элемент в конец коллекции.
+     * @param band элемент
+     * @throws IllegalArgumentException если элемент с таким ID уже есть
+     */
+    public void add(MusicBand band) {
+        // проверка до изменения индекса: при занятом ID хранилище остаётся прежним
+        if (index.containsKey(band.getId())) {
+            throw new IllegalArgumentException("ID " + band.getId() + " уже занят");
+        }
+        Node node = new Node(band, ThreadLocalRandom.current().nextInt());
+        index.put(band.getId(), node);
+        root = merge(root, node);
+        root.parent = null;
+        labels.add(band);
+        owners.add(band);
+        sorted.add(band);
+    }
+
+    /**
+     * Возвращает элемент по ID.
+     * @param id ID элемента
+     * @return элемент или null, если не найден
+     */
+    public MusicBand get(long id) {
+        Node node = index.get(id);
+        return node == null ? null : node.band;
+    }
+
+    /**
+     * Проверяет наличие элемента с ID.
+     * @param id ID элемента
+     * @return true, если элемент есть
+     */
+    public boolean contains(long id) {
+        return index.containsKey(id);
+    }
+
+    /**
+     * Удаляет элемент по ID.
+     * @param id ID элемента
+     * @return удалённый элемент или null, если не найден
+     */
+    public MusicBand remove(long id) {
+        Node node = index.remove(id);
+        if (node == null) {
+            return null;
+        }
+        unlink(node);
+        labels.remove(node.band);
+        owners.remove(node.band);
+        sorted.remove(node.band);
+        return node.band;
+    }
+
+    /**
+     * Удаляет элемент по позиции.
+     * @param position позиция элемента
+     * @return удалённый элемент
+     * @throws IndexOutOfBoundsException если позиции нет
+     */
+    public MusicBand removeAt(int position) {
+        Node node = nodeAt(position);
+        index.remove(node.band.getId());
+        unlink(node);
+        labels.remove(node.band);
+        owners.remove(node.band);
+        sorted.remove(node.band);
+        return node.band;
+    }
+
+    /**
+     * Возвращает первый элемент коллекции.
+     * @return элемент или null, если коллекция пуста
+     */
+    public MusicBand first() {
+        Node node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node.band;
+    }
+
+    /**
+     * Возвращает последний элемент коллекции.
+     * @return элемент или null, если коллекция пуста
+     */
+    public MusicBand last() {
+        Node node = root;
+        if (node == null) {
+            return null;
+        }
+        while (node.right != null) {
+            node = node.right;
+        }
+        return node.band;
+    }
+
+    /**
+     * Возвращает элемент по позиции.
+     * @param position позиция элемента
+     * @return элемент
+     * @throws IndexOutOfBoundsException если позиции нет
+     */
+    public MusicBand getAt(int position) {
+        return nodeAt(position).band;
+    }
+
+    /**
+     * Возвращает позицию элемента с ID.
+     * @param id ID элемента
+     * @return позиция элемента или -1, если он не найден
+     */
+    public int indexOf(long id) {
+        Node node = index.get(id);
+        if (node == null) {
+            return -1;
+        }
+        int position = size(node.left);
+        for (Node child = node, parent = node.parent; parent != null; child = parent, parent = parent.parent) {
+            if (parent.right == child) {
+                position += size(parent.left) + 1;
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Возвращает количество элементов.
+     * @return количество элементов
+     */
+    public int size() {
+        return index.size();
+    }
+
+    /**
+     * Проверяет, пусто ли хранилище.
+     * @return true, если элементов нет
+     */
+    public boolean isEmpty() {
+        return index.isEmpty();
+    }
+
+    /**
+     * Удаляет все элементы.
+     */
+    public void clear() {
+        index.clear();
+        root = null;
+        labels.clear();
+        owners.clear();
+        sorted.clear();
+    }
+
+    /**
+     * Возвращает индекс элементов по лейблу (только для чтения).
+     * @return индекс по лейблу
+     */
+    public LabelIndex labels() {
+        return labels;
+    }
+
+    /**
+     * Возвращает индекс элементов по владельцу (только для чтения).
+     * @return индекс по владельцу
+     */
+    public OwnerIndex owners() {
+        return owners;
+    }
+
+    /**
+     * Возвращает отсортированные представления элементов (только для чтения).
+     * @return отсортированные представления
+     */
+    public SortedViews sorted() {
+        return sorted;
+    }
+
+    /**
+     * Перемешивает элементы, сохраняя индекс.
+     */
+    public void shuffle() {
+        List<Node> nodes = new ArrayList<>(size());
+        for (Node node = leftmost(root); node != null; node = successor(node)) {
+            nodes.add(node);
+        }
+        Collections.shuffle(nodes, ThreadLocalRandom.current());
+        root = null;
+        // группы лейблов хранятся в порядке коллекции, поэтому перестраиваются вместе с ней
+        labels.clear();
+        for (Node node : nodes) {
+            labels.add(node.band);
+            node.left = null;
+            node.right = null;
+            node.size = 1;
+            root = merge(root, node);
+            root.parent = null;
+        }
+    }
+
+    /**
+     * Возвращает элементы в порядке хранения.
+     * @return новый список элементов
+     */
+    public List<MusicBand> toList() {
+        List<MusicBand> list = new ArrayList<>(size());
+        for (MusicBand band : this) {
+            list.add(band);
+        }
+        return list;
+    }
+
+    @Override
+    public Iterator<MusicBand> iterator() {
+        return new Iterator<>() {
+            private Node next = leftmost(root);
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public MusicBand next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                MusicBand band = next.band;
+                next = successor(next);
+                return band;
+            }
+        };
+    }
+
+    /**
+     * Находит узел по позиции спуском от корня.
+     */
+    private Node nodeAt(int position) {
+        Objects.checkIndex(position, size());
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position == leftSize) {
+                return node;
+            } else {
+                position -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Исключает узел из дерева: заменяет его объединением поддеревьев и пересчитывает размеры предков.
+     */
+    private void unlink(Node node) {
+        Node parent = node.parent;
+        Node replacement = merge(node.left, node.right);
+        if (replacement != null) {
+            replacement.parent = parent;
+        }
+        if (parent == null) {
+            root = replacement;
+        } else if (parent.left == node) {
+            parent.left = replacement;
+        } else {
+            parent.right = replacement;
+        }
+        for (Node ancestor = parent; ancestor != null; ancestor = ancestor.parent) {
+            update(ancestor);
+        }
+        node.left = null;
+        node.right = null;
+        node.parent = null;
+    }
+
+    /**
+     * Объединяет два дерева: все элементы первого идут перед элементами второго.
+     * Родитель корня результата выставляется вызывающим.
+     */
+    private static Node merge(Node first, Node second) {
+        if (first == null) {
+            return second;
+        }
+        if (second == null) {
+            return first;
+        }
+        if (first.priority > second.priority) {
+            first.right = merge(first.right, second);
+            first.right.parent = first;
+            update(first);
+            return first;
+        }
+        second.left = merge(first, second.left);
+        second.left.parent = second;
+        update(second);
+        return second;
+    }
+
+    /**
+     * Пересчитывает размер поддерева узла.
+     */
+    private static void update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+    }
+
+    /**
+     * Возвращает размер поддерева (0 для пустого).
+     */
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Возвращает самый левый узел поддерева.
+     */
+    private static Node leftmost(Node node) {
+        if (node == null) {
+            return null;
+        }
+        while (node.left != null) {
+            node = node.left;
+        }
+        return node;
+    }
+
+    /**
+     * Возвращает следующий по порядку узел.
+     */
+    private static Node successor(Node node) {
+        if (node.right != null) {
+            return leftmost(node.right);
+        }
+        Node child = node;
+        Node parent = node.parent;
+        while (parent != null && parent.right == child) {
+            child = parent;
+            parent = parent.parent;
+        }
+        return parent;
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.managers;
+
+import org.example.mainClasses.MusicBand;
+import org.example.network.CollectionDelta;
+
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+/**
+ * Ограниченный журнал последних изменений коллекции для передачи клиентам только изменений
+ * (см. {@link CollectionManager#changesSince(long)}).
+ * Каждая запись — добавление или замена элемента (элемент переносится в конец коллекции,
+ * как при добавлении и обновлении) либо удаление по ID, помеченные версией коллекции после изменения.
+ * Изменения, которые нельзя выразить такими записями (перемешивание, очистка, загрузка),
+ * сбрасывают журнал. При переполнении вытесняются самые старые записи.
+ * Не потокобезопасен: записывается под блокировкой записи коллекции, читается под блокировкой чтения.
+ */
+public class ChangeLog {
+
+    /**
+     * Изменение одного элемента.
+     */
+    private static final class Change {
+        private final long version;
+        private final long id;
+        /** Новое содержимое элемента или null, если элемент удалён */
+        private final MusicBand band;
+
+        private Change(long version, long id, MusicBand band) {
+            this.version = version;
+            this.id = id;
+            this.band = band;
+        }
+    }
+
+    /** Записи в порядке изменений */
+    private final ArrayDeque<Change> changes = new ArrayDeque<>();
+
+    /** Максимальное количество записей */
+    private final int capacity;
+
+    /** Версия, начиная с которой журнал содержит все изменения */
+    private long floor;
+
+    /**
+     * Конструктор журнала.
+     * @param capacity максимальное количество записей (0 — журнал не ведётся)
+     */
+    public ChangeLog(int capacity) {
+        this.capacity = Math.max(0, capacity);
+    }
+
+    /**
+     * Записывает добавление или замену элемента.
+     * @param version версия коллекции после изменения
+     * @param band элемент
+     */
+    public void put(long version, MusicBand band) {
+        append(new Change(version, band.getId(), band));
+    }
+
+    /**
+     * Записывает удаление элемента.
+     * @param version версия коллекции после изменения
+     * @param id ID удалённого элемента
+     */
+    public void remove(long version, long id) {
+        append(new Change(version, id, null));
+    }
+
+    /**
+     * Сбрасывает журнал: изменения до указанной версии больше не восстановить по записям.
+     * @param version версия коллекции после изменения
+     */
+    public void reset(long version) {
+        changes.clear();
+        floor = version;
+    }
+
+    private void append(Change change) {
+        if (capacity == 0) {
+            reset(change.version);
+            return;
+        }
+        changes.addLast(change);
+        while (changes.size() > capacity) {
+            // версия вытесненной записи больше не покрыта журналом целиком
+            floor = changes.removeFirst().version;
+        }
+    }
+
+    /**
+     * Собирает изменения после указанной версии. Повторные изменения одного элемента сворачиваются:
+     * в результате остаётся последнее содержимое элемента или его удаление, а добавленные и изменённые
+     * элементы идут в порядке их последнего изменения.
+     * @param from версия, известная клиенту
+     * @param version текущая версия коллекции
+     * @param date дата инициализации коллекции, передаваемая вместе с изменениями
+     * @return изменения или null, если журнал не покрывает изменения после этой версии
+     */
+    public CollectionDelta since(long from, long version, LocalDate date) {
+        if (from < floor || from > version) {
+            return null;
+        }
+        LinkedHashMap<Long, MusicBand> puts = new LinkedHashMap<>();
+        Set<Long> removed = new HashSet<>();
+        Iterator<Change> newest = changes.descendingIterator();
+        ArrayDeque<Change> tail = new ArrayDeque<>();
+        while (newest.hasNext()) {
+            Change change = newest.next();
+            if (change.version <= from) {
+                break;
+            }
+            tail.addFirst(change);
+        }
+        for (Change change : tail) {
+            if (change.band == null) {
+                puts.remove(change.id);
+                removed.add(change.id);
+            } else {
+                removed.remove(change.id);
+                puts.remove(change.id);
+                puts.put(change.id, change.band);
+            }
+        }
+        return new CollectionDelta(from, version, false, new ArrayList<>(puts.values()), new ArrayList<>(removed), date);
+    }
+
+    /**
+     * Возвращает количество записей.
+     * @return количество записей
+     */
+    public int size() {
+        return changes.size();
+    }
+}
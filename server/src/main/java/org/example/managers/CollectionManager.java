@@ -6,43 +6,126 @@ import org.example.exceptions.InvalidDataException;
 import org.example.exceptions.NoElementException;
 import org.example.mainClasses.Label;
 import org.example.mainClasses.MusicBand;
+import org.example.network.CollectionDelta;
 import org.example.network.Response;
 
+import java.io.IOException;
 import java.sql.SQLException;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.stream.Collectors;
 
 /**
  * Менеджер коллекции музыкальных групп.
  * Обеспечивает хранение и управление коллекцией объектов MusicBand.
  * Поддерживает основные CRUD операции, сортировку, фильтрацию и другие операции с коллекцией.
+ * Безопасен для использования из нескольких потоков: изменения выполняются под блокировкой записи
+ * и увеличивают версию коллекции, а чтение идёт по неизменяемому снимку {@link CollectionSnapshot},
+ * который публикуется без блокировок и пересоздаётся только после изменений.
+ * Изменения отдельных элементов записываются в ограниченный журнал {@link ChangeLog},
+ * по которому клиенты получают только изменения после известной им версии.
  */
 public class CollectionManager {
-    /** Коллекция музыкальных групп (стек) */
-    private Stack<MusicBand> bands = new Stack<MusicBand>();
+    /** Размер журнала изменений по умолчанию */
+    public static final int DEFAULT_CHANGE_LOG_SIZE = 4096;
+
+    /** Коллекция музыкальных групп с индексом по ID; изменяется только под блокировкой записи */
+    private final BandStorage bands = new BandStorage();
+
+    /** Блокировка коллекции: запись — для изменений, чтение — для создания снимка */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Версия коллекции, увеличивается при каждом изменении (только под блокировкой записи) */
+    private volatile long version;
+
+    /** Журнал последних изменений; изменяется только под блокировкой записи */
+    private final ChangeLog changes;
+
+    /** Снимок текущей версии коллекции или null, если коллекция изменилась после его создания */
+    private volatile CollectionSnapshot snapshot;
+
+    /** Копия отсортированных представлений текущей версии или null, если коллекция изменилась */
+    private volatile SortedSnapshot sortedSnapshot;
 
     /** Дата инициализации коллекции */
-    private LocalDate date;
+    private volatile LocalDate date;
 
-    /** Менеджер для работы с базой данных */
-    private DataBaseManager dataBaseManager = new DataBaseManager();
+    /** Менеджер для работы с базой данных (общий с командами) */
+    private final DataBaseManager dataBaseManager;
 
     /**
      * Конструктор менеджера коллекции.
      * Инициализирует дату создания коллекции текущей датой.
-     * @throws SQLException при ошибках работы с базой данных
+     * @param dataBaseManager менеджер базы данных, из которой загружается коллекция
      */
-    public CollectionManager() throws SQLException {
+    public CollectionManager(DataBaseManager dataBaseManager) {
+        this(dataBaseManager, DEFAULT_CHANGE_LOG_SIZE);
+    }
+
+    /**
+     * Конструктор менеджера коллекции с заданным размером журнала изменений.
+     * @param dataBaseManager менеджер базы данных, из которой загружается коллекция
+     * @param changeLogSize максимальное количество записей журнала изменений (0 — клиенты всегда получают коллекцию целиком)
+     */
+    public CollectionManager(DataBaseManager dataBaseManager, int changeLogSize) {
+        this.dataBaseManager = dataBaseManager;
+        this.changes = new ChangeLog(changeLogSize);
         this.date = LocalDate.parse(LocalDate.now().toString());
     }
 
+    /**
+     * Возвращает согласованный снимок коллекции.
+     * Если коллекция не менялась с момента создания последнего снимка, он возвращается без блокировок.
+     * @return неизменяемый снимок коллекции
+     */
+    public CollectionSnapshot snapshot() {
+        CollectionSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = snapshot;
+            if (current == null) {
+                current = new CollectionSnapshot(version, bands.toList());
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает копию отсортированных представлений текущей версии коллекции.
+     * Создаётся под блокировкой чтения один раз на версию, затем возвращается без блокировок.
+     * @return неизменяемая копия представлений
+     */
+    private SortedSnapshot sortedSnapshot() {
+        SortedSnapshot current = sortedSnapshot;
+        if (current != null) {
+            return current;
+        }
+        lock.readLock().lock();
+        try {
+            current = sortedSnapshot;
+            if (current == null) {
+                current = bands.sorted().snapshot();
+                sortedSnapshot = current;
+            }
+            return current;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
     /**
      * Возвращает текущую коллекцию музыкальных групп.
-     * @return стек объектов MusicBand
+     * @return неизменяемый список объектов MusicBand из снимка коллекции
      */
-    public Stack<MusicBand> getBands() {
-        return this.bands;
+    public List<MusicBand> getBands() {
+        return snapshot().getBands();
     }
 
     /**
@@ -50,10 +133,49 @@ public class CollectionManager {
      * @return ID первого элемента или 0, если коллекция пуста
      */
     public long getFirstId() {
-        for (MusicBand band : this.bands) {
-            return band.getId();
+        lock.readLock().lock();
+        try {
+            MusicBand first = bands.first();
+            return first == null ? 0 : first.getId();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает первый элемент коллекции.
+     * @return первый элемент
+     * @throws EmptyCollectionException если коллекция пуста
+     */
+    public MusicBand getFirst() throws EmptyCollectionException {
+        lock.readLock().lock();
+        try {
+            MusicBand first = bands.first();
+            if (first == null) {
+                throw new EmptyCollectionException();
+            }
+            return first;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Возвращает элемент по индексу за O(log n).
+     * @param num индекс элемента
+     * @return элемент
+     * @throws NoElementException если индекс невалиден
+     */
+    public MusicBand getAt(int num) throws NoElementException {
+        lock.readLock().lock();
+        try {
+            if (num < 0 || num >= bands.size()) {
+                throw new NoElementException();
+            }
+            return bands.getAt(num);
+        } finally {
+            lock.readLock().unlock();
         }
-        return 0;
     }
 
     /**
@@ -62,22 +184,48 @@ public class CollectionManager {
      * @throws EmptyCollectionException если коллекция пуста
      */
     public String groupByLabel() throws EmptyCollectionException {
-        if (bands.isEmpty()) {
-            throw new EmptyCollectionException();
+        return groupByLabel(true);
+    }
+
+    /**
+     * Группирует элементы коллекции по лейблу по индексу лейблов.
+     * Под блокировкой чтения копируются только ссылки на элементы групп (или количества),
+     * а строка формируется уже без блокировки, чтобы вывод большой коллекции не задерживал изменения.
+     * @param withBands выводить ли элементы групп или только количество
+     * @return строку с группировкой по лейблам и количеством элементов
+     * @throws EmptyCollectionException если коллекция пуста
+     */
+    public String groupByLabel(boolean withBands) throws EmptyCollectionException {
+        Map<Label, List<MusicBand>> groups = null;
+        Map<Label, Integer> counts = null;
+        lock.readLock().lock();
+        try {
+            if (bands.isEmpty()) {
+                throw new EmptyCollectionException();
+            }
+            if (withBands) {
+                groups = bands.labels().groups();
+            } else {
+                counts = bands.labels().counts();
+            }
+        } finally {
+            lock.readLock().unlock();
         }
+        return withBands ? LabelIndex.format(groups) : LabelIndex.formatCounts(counts);
+    }
 
-        return bands.stream()
-                .collect(Collectors.groupingBy(MusicBand::getLabel))
-                .entrySet().stream()
-                .map(entry -> {
-                    String label = entry.getKey().toString();
-                    List<MusicBand> musicBands = entry.getValue();
-                    return label + ", Count: " + musicBands.size() + "\n" +
-                            musicBands.stream()
-                                    .map(MusicBand::toString)
-                                    .collect(Collectors.joining("\n"));
-                })
-                .collect(Collectors.joining("\n"));
+    /**
+     * Возвращает количество элементов по лейблам без обхода коллекции.
+     * Под блокировкой копируется только таблица размером с число лейблов.
+     * @return таблица лейбл → количество элементов
+     */
+    public Map<Label, Integer> countByLabel() {
+        lock.readLock().lock();
+        try {
+            return bands.labels().counts();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -85,7 +233,14 @@ public class CollectionManager {
      * @param date новая дата создания коллекции
      */
     public void setLocaleDate(LocalDate date) {
-        this.date = date;
+        lock.writeLock().lock();
+        try {
+            this.date = date;
+            // дата входит в результат info
+            changed();
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -102,12 +257,7 @@ public class CollectionManager {
      * @return true если ID уникален, иначе false
      */
     public boolean checkId(MusicBand musicBand) {
-        for (MusicBand band : bands) {
-            if (musicBand.getId() == band.getId()) {
-                return false;
-            }
-        }
-        return true;
+        return getById(musicBand.getId()) == null;
     }
 
     /**
@@ -116,7 +266,7 @@ public class CollectionManager {
      */
     public boolean checkSameId() {
         Set<Long> ids = new HashSet<>();
-        for (MusicBand band : bands) {
+        for (MusicBand band : getBands()) {
             if (!ids.add(band.getId())) {
                 return false;
             }
@@ -131,8 +281,13 @@ public class CollectionManager {
      */
     public void addElem(Collection<MusicBand> collection) throws InvalidDataException {
         if (collection == null) return;
-        for (MusicBand band : collection) {
-            add(band);
+        lock.writeLock().lock();
+        try {
+            for (MusicBand band : collection) {
+                add(band);
+            }
+        } finally {
+            lock.writeLock().unlock();
         }
     }
 
@@ -145,11 +300,18 @@ public class CollectionManager {
         if (!band.validate()) {
             throw new InvalidDataException();
         }
-        while (!checkId(band)) {
-            MusicBand.idcounter++;
-            band.setId(MusicBand.idcounter);
+        lock.writeLock().lock();
+        try {
+            while (findById(band.getId()) != null) {
+                MusicBand.idcounter++;
+                band.setId(MusicBand.idcounter);
+            }
+            bands.add(band);
+            changed();
+            changes.put(version, band);
+        } finally {
+            lock.writeLock().unlock();
         }
-        bands.add(band);
     }
 
     /**
@@ -158,10 +320,59 @@ public class CollectionManager {
      * @return найденная группа или null, если не найдена
      */
     public MusicBand getById(long id) {
-        for (MusicBand band : bands) {
-            if (band.getId() == id) return band;
+        lock.readLock().lock();
+        try {
+            return bands.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ищет музыкальную группу по ID в изменяемой коллекции.
+     * Вызывается только под блокировкой записи.
+     * @param id ID искомой группы
+     * @return найденная группа или null, если не найдена
+     */
+    private MusicBand findById(long id) {
+        return bands.get(id);
+    }
+
+    /**
+     * Отмечает изменение коллекции: увеличивает версию и сбрасывает устаревшие снимки.
+     * Вызывается только под блокировкой записи.
+     */
+    private void changed() {
+        version++;
+        snapshot = null;
+        sortedSnapshot = null;
+    }
+
+    /**
+     * Возвращает текущую версию коллекции без блокировок и без создания снимка.
+     * @return версия коллекции
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Возвращает изменения коллекции после указанной версии по журналу изменений,
+     * а если журнал их уже не покрывает — всю коллекцию.
+     * @param from версия коллекции, известная клиенту (-1 — коллекция целиком)
+     * @return изменения коллекции, согласованные с её текущей версией
+     */
+    public CollectionDelta changesSince(long from) {
+        lock.readLock().lock();
+        try {
+            CollectionDelta delta = changes.since(from, version, date);
+            if (delta == null) {
+                delta = new CollectionDelta(from, version, true, bands.toList(), List.of(), date);
+            }
+            return delta;
+        } finally {
+            lock.readLock().unlock();
         }
-        return null;
     }
 
     /**
@@ -170,11 +381,56 @@ public class CollectionManager {
      * @throws NoElementException если группа не найдена
      */
     public void removeById(long id) throws NoElementException {
-        MusicBand band = getById(id);
-        if (band == null) {
-            throw new NoElementException();
+        lock.writeLock().lock();
+        try {
+            if (bands.remove(id) == null) {
+                throw new NoElementException();
+            }
+            changed();
+            changes.remove(version, id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Проверяет в памяти, принадлежит ли элемент пользователю, без обращения к БД.
+     * @param id ID элемента
+     * @param login логин пользователя
+     * @return true, если элемент принадлежит пользователю
+     * @throws NoElementException если элемента с таким ID нет
+     */
+    public boolean isOwner(long id, String login) throws NoElementException {
+        lock.readLock().lock();
+        try {
+            MusicBand band = bands.get(id);
+            if (band == null) {
+                throw new NoElementException();
+            }
+            return Objects.equals(band.getUserLogin(), login);
+        } finally {
+            lock.readLock().unlock();
         }
-        bands.remove(band);
+    }
+
+    /**
+     * Возвращает ID всех элементов пользователя по индексу владельцев.
+     * @param login логин пользователя
+     * @return список ID (пустой, если у пользователя нет элементов)
+     */
+    public List<Long> getIdsByOwner(String login) {
+        long[] ids;
+        lock.readLock().lock();
+        try {
+            ids = bands.owners().ids(login);
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
     }
 
     /**
@@ -191,10 +447,17 @@ public class CollectionManager {
      * @throws AlreadyEmptyException если коллекция уже пуста
      */
     public void clear() throws AlreadyEmptyException {
-        if (bands.isEmpty()) {
-            throw new AlreadyEmptyException();
+        lock.writeLock().lock();
+        try {
+            if (bands.isEmpty()) {
+                throw new AlreadyEmptyException();
+            }
+            bands.clear();
+            changed();
+            changes.reset(version);
+        } finally {
+            lock.writeLock().unlock();
         }
-        bands.clear();
     }
 
     /**
@@ -215,10 +478,16 @@ public class CollectionManager {
 
     /**
      * Возвращает размер коллекции.
+     * Читает размер хранилища под блокировкой чтения, не создавая снимок коллекции.
      * @return количество элементов
      */
     public int size() {
-        return bands.size();
+        lock.readLock().lock();
+        try {
+            return bands.size();
+        } finally {
+            lock.readLock().unlock();
+        }
     }
 
     /**
@@ -236,14 +505,17 @@ public class CollectionManager {
      * @throws EmptyCollectionException если коллекция пуста
      */
     public void shuffle() throws EmptyCollectionException {
-        if (bands.isEmpty()) {
-            throw new EmptyCollectionException();
+        lock.writeLock().lock();
+        try {
+            if (bands.isEmpty()) {
+                throw new EmptyCollectionException();
+            }
+            bands.shuffle();
+            changed();
+            changes.reset(version);
+        } finally {
+            lock.writeLock().unlock();
         }
-        List<MusicBand> newCollection = new ArrayList<>(bands);
-        Collections.shuffle(newCollection);
-        Stack<MusicBand> shuffled = new Stack<>();
-        shuffled.addAll(newCollection);
-        this.bands = shuffled;
     }
 
     /**
@@ -254,16 +526,21 @@ public class CollectionManager {
      * @throws InvalidDataException если данные невалидны
      */
     public void updateId(long id, MusicBand band) throws NoElementException, InvalidDataException {
-        MusicBand oldElem = getById(id);
-        if (oldElem == null) {
-            throw new NoElementException();
-        }
         if (!band.validate()) {
             throw new InvalidDataException();
         }
-        bands.remove(oldElem);
-        band.setId(id);
-        bands.add(band);
+        lock.writeLock().lock();
+        try {
+            if (bands.remove(id) == null) {
+                throw new NoElementException();
+            }
+            band.setId(id);
+            bands.add(band);
+            changed();
+            changes.put(version, band);
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -271,10 +548,7 @@ public class CollectionManager {
      * @return строку с названиями лейблов
      */
     public String printLabelField() {
-        return bands.stream()
-                .map(MusicBand::getLabelName)
-                .sorted(Comparator.nullsLast(Comparator.reverseOrder()))
-                .collect(Collectors.joining("\n"));
+        return sortedSnapshot().formatLabelNames();
     }
 
     /**
@@ -283,13 +557,11 @@ public class CollectionManager {
      * @throws EmptyCollectionException если коллекция пуста
      */
     public String printAscend() throws EmptyCollectionException {
-        if (bands.isEmpty()) {
+        SortedSnapshot sorted = sortedSnapshot();
+        if (sorted.isEmpty()) {
             throw new EmptyCollectionException();
         }
-        return bands.stream()
-                .sorted(Comparator.naturalOrder())
-                .map(MusicBand::toString)
-                .collect(Collectors.joining("\n"));
+        return sorted.formatById();
     }
 
     /**
@@ -298,6 +570,7 @@ public class CollectionManager {
      * @throws EmptyCollectionException если коллекция пуста
      */
     public String show() throws EmptyCollectionException {
+        List<MusicBand> bands = getBands();
         if (bands.isEmpty()) {
             throw new EmptyCollectionException();
         }
@@ -312,10 +585,17 @@ public class CollectionManager {
      * @throws EmptyCollectionException если коллекция пуста
      */
     public void removeFirst() throws EmptyCollectionException {
-        if (bands.isEmpty()) {
-            throw new EmptyCollectionException();
+        lock.writeLock().lock();
+        try {
+            if (bands.isEmpty()) {
+                throw new EmptyCollectionException();
+            }
+            MusicBand removed = bands.removeAt(0);
+            changed();
+            changes.remove(version, removed.getId());
+        } finally {
+            lock.writeLock().unlock();
         }
-        bands.remove(bands.lastElement());
     }
 
     /**
@@ -324,25 +604,91 @@ public class CollectionManager {
      * @throws NoElementException если индекс невалиден
      */
     public void removeAt(int num) throws NoElementException {
-        if (num < 0 || num >= bands.size()) {
-            throw new NoElementException();
+        lock.writeLock().lock();
+        try {
+            if (num < 0 || num >= bands.size()) {
+                throw new NoElementException();
+            }
+            MusicBand removed = bands.removeAt(num);
+            changed();
+            changes.remove(version, removed.getId());
+        } finally {
+            lock.writeLock().unlock();
         }
-        bands.remove(num);
     }
 
     /**
-     * Устанавливает новую коллекцию.
-     * @param bands новая коллекция музыкальных групп
+     * Загружает коллекцию из базы данных.
+     * Элементы добавляются в коллекцию по мере чтения строк, поэтому пик памяти не превышает
+     * размер самой коллекции и одной порции строк. Загрузка идёт под блокировкой записи:
+     * до её завершения другие потоки не видят частично загруженную коллекцию.
+     * При ошибке коллекция остаётся пустой.
      */
-    public void setBands(Stack<MusicBand> bands) {
-        this.bands = bands;
+    public void loadCollection() {
+        loadCollection(1);
     }
 
     /**
-     * Загружает коллекцию из базы данных.
+     * Загружает коллекцию из базы данных, при partitions больше 1 — параллельно по диапазонам ID
+     * (см. {@link DataBaseManager#loadBands(int, java.util.function.Consumer)}); порядок элементов
+     * тот же, что при последовательной загрузке.
+     * @param partitions количество частей, загружаемых одновременно
      */
-    public void loadCollection() {
-        this.setBands(dataBaseManager.createCollection());
+    public void loadCollection(int partitions) {
+        lock.writeLock().lock();
+        try {
+            bands.clear();
+            try {
+                if (partitions > 1) {
+                    dataBaseManager.loadBands(partitions, bands::add);
+                } else {
+                    dataBaseManager.loadBands(bands::add);
+                }
+            } catch (SQLException e) {
+                System.err.println("Ошибка выполнения запроса");
+                bands.clear();
+            } catch (IllegalArgumentException e) {
+                System.err.println("Поля Объектов не валидны");
+                bands.clear();
+            }
+            changed();
+            changes.reset(version);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Восстанавливает коллекцию из файла снимка и догружает из базы данных изменения,
+     * сделанные после записи снимка: добавленные и изменённые элементы переносятся в конец коллекции
+     * (как при добавлении и обновлении), удалённые удаляются.
+     * Выполняется под блокировкой записи; при любой ошибке коллекция остаётся пустой.
+     * @param file файл снимка
+     * @return true, если коллекция восстановлена, false — если её нужно загрузить из базы данных целиком
+     */
+    public boolean restoreCollection(SnapshotFile file) {
+        lock.writeLock().lock();
+        try {
+            bands.clear();
+            try {
+                long revision = file.read(bands::add);
+                dataBaseManager.loadChangedBands(revision, band -> {
+                    bands.remove(band.getId());
+                    bands.add(band);
+                });
+                dataBaseManager.getDeletedIds(revision).forEach(bands::remove);
+                return true;
+            } catch (IOException | SQLException | IllegalArgumentException e) {
+                System.err.println("Не удалось восстановить коллекцию из снимка: " + e.getMessage());
+                bands.clear();
+                return false;
+            } finally {
+                changed();
+                changes.reset(version);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 
     /**
@@ -350,6 +696,16 @@ public class CollectionManager {
      * @param ids список ID для удаления
      */
     public void removeElements(List<Long> ids) {
-        ids.forEach(id -> bands.remove(getById((id))));
+        lock.writeLock().lock();
+        try {
+            changed();
+            for (long id : ids) {
+                if (bands.remove(id) != null) {
+                    changes.remove(version, id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
     }
 }
\ No newline at end of file
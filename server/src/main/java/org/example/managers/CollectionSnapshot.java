@@ -0,0 +1,63 @@
+package org.example.managers;
+
+import org.example.mainClasses.MusicBand;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемый снимок коллекции музыкальных групп.
+ * Публикуется {@link CollectionManager} для чтения без блокировок:
+ * снимок согласован и не меняется при последующих изменениях коллекции.
+ */
+public class CollectionSnapshot {
+
+    /** Версия коллекции, на момент которой сделан снимок */
+    private final long version;
+
+    /** Элементы коллекции в порядке хранения */
+    private final List<MusicBand> bands;
+
+    /**
+     * Конструктор снимка.
+     *
+     * @param version версия коллекции
+     * @param bands элементы коллекции; список передаётся снимку и больше не должен изменяться
+     */
+    public CollectionSnapshot(long version, List<MusicBand> bands) {
+        this.version = version;
+        this.bands = Collections.unmodifiableList(bands);
+    }
+
+    /**
+     * Возвращает версию коллекции, на момент которой сделан снимок.
+     * @return версия коллекции
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Возвращает элементы коллекции.
+     * @return неизменяемый список элементов
+     */
+    public List<MusicBand> getBands() {
+        return bands;
+    }
+
+    /**
+     * Проверяет, пуст ли снимок.
+     * @return true, если в коллекции нет элементов
+     */
+    public boolean isEmpty() {
+        return bands.isEmpty();
+    }
+
+    /**
+     * Возвращает количество элементов в снимке.
+     * @return количество элементов
+     */
+    public int size() {
+        return bands.size();
+    }
+}
@@ -15,6 +15,9 @@ public class CommandManager {
     /** Хранилище зарегистрированных команд (имя команды -> объект команды) */
     private HashMap<String, Command> commands = new HashMap<>();
 
+    /** Кеш результатов читающих команд или null, если кеш выключен */
+    private ResponseCache responseCache;
+
     /**
      * Добавляет команду в менеджер.
      * @param command команда для добавления
@@ -36,8 +39,10 @@ public class CommandManager {
      * @param commandManager экземпляр менеджера команд
      * @param collectionManager менеджер коллекции
      * @param dataBaseManager менеджер базы данных
+     * @param sessionManager менеджер сессий (для входа и регистрации)
      */
-    public void init(CommandManager commandManager, CollectionManager collectionManager, DataBaseManager dataBaseManager) {
+    public void init(CommandManager commandManager, CollectionManager collectionManager, DataBaseManager dataBaseManager,
+                     SessionManager sessionManager) {
         this.addCommand(new Add(collectionManager, dataBaseManager));
         commandManager.addCommand(new Clear(collectionManager, dataBaseManager));
         commandManager.addCommand(new ExecuteScript(commandManager));
@@ -52,17 +57,48 @@ public class CommandManager {
         commandManager.addCommand(new Show(collectionManager));
         commandManager.addCommand(new Shuffle(collectionManager));
         commandManager.addCommand(new UpdateId(collectionManager, dataBaseManager));
-        commandManager.addCommand(new Login(dataBaseManager));
-        commandManager.addCommand(new Register(dataBaseManager));
+        commandManager.addCommand(new Login(dataBaseManager, sessionManager));
+        commandManager.addCommand(new Register(dataBaseManager, sessionManager));
+        commandManager.addCommand(new Sync(collectionManager));
+    }
+
+    /**
+     * Устанавливает кеш результатов читающих команд.
+     * @param responseCache кеш или null, чтобы выключить кеширование
+     */
+    public void setResponseCache(ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    /**
+     * Возвращает кеш результатов читающих команд.
+     * @return кеш или null, если кеширование выключено
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
     }
 
     /**
      * Выполняет команду на основе полученного запроса.
+     * Результат команды, которая только читает коллекцию, берётся из кеша, если коллекция не изменилась,
+     * а одинаковые одновременные запросы такой команды вычисляются один раз. Если клиент уже получил
+     * результат на текущей версии коллекции, ответ передаётся без результата.
      * @param request запрос, содержащий команду и аргументы
      * @return результат выполнения команды
      */
     public Response execute(Request request) {
         Command command = this.commands.get(request.getCommand().getName());
+        if (command != null && command.isCacheable() && responseCache != null) {
+            // версия читается до вычисления: результат может оказаться новее версии, но не старше
+            long version = responseCache.getVersion();
+            if (request.getKnownVersion() == version) {
+                return Response.notModified(version);
+            }
+            Response response = new Response(responseCache.get(command.getName(), request.getArgs(),
+                    () -> command.execute(request).getResult()));
+            response.setVersion(version);
+            return response;
+        }
         if (command != null) {
             return command.execute(request);
         } else {
@@ -0,0 +1,229 @@
+package org.example.managers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Ограниченный пул соединений с базой данных.
+ * Одновременно выдаётся не больше {@code maxSize} соединений; если свободных нет,
+ * запрос ждёт не дольше заданного времени. Соединения создаются по требованию,
+ * а перед повторной выдачей проверяются, если простаивали дольше порога проверки.
+ * Потокобезопасен, используется всеми менеджерами через один {@link DataBaseManager}.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger("logger");
+
+    /** Время на проверку соединения, секунды */
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    /** Адрес базы данных */
+    private final String url;
+
+    /** Пользователь базы данных */
+    private final String user;
+
+    /** Пароль пользователя базы данных */
+    private final String password;
+
+    /** Максимальное количество соединений */
+    private final int maxSize;
+
+    /** Максимальное время ожидания свободного соединения, мс */
+    private final long acquireTimeoutMillis;
+
+    /** Время простоя, после которого соединение проверяется перед выдачей, мс */
+    private final long validateAfterIdleMillis;
+
+    /** Разрешения на выдачу соединений (по одному на соединение) */
+    private final Semaphore permits;
+
+    /** Свободные соединения; последнее возвращённое выдаётся первым */
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+
+    /** Количество выданных соединений */
+    private final AtomicInteger inUse = new AtomicInteger();
+
+    /** Пул закрыт */
+    private volatile boolean closed;
+
+    /**
+     * Конструктор пула. Соединения не открываются до первого запроса.
+     *
+     * @param url адрес базы данных
+     * @param user пользователь базы данных
+     * @param password пароль пользователя
+     * @param maxSize максимальное количество соединений
+     * @param acquireTimeoutMillis максимальное время ожидания свободного соединения, мс
+     * @param validateAfterIdleMillis время простоя, после которого соединение проверяется, мс
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize,
+                          long acquireTimeoutMillis, long validateAfterIdleMillis) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("Размер пула должен быть положительным");
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validateAfterIdleMillis = validateAfterIdleMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Выдаёт соединение из пула. Соединение нужно вернуть вызовом {@link PooledConnection#close()},
+     * удобнее всего через try-with-resources.
+     *
+     * @return соединение
+     * @throws SQLTimeoutException если свободное соединение не появилось за время ожидания
+     * @throws SQLException если не удалось открыть соединение или пул закрыт
+     */
+    public PooledConnection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("Пул соединений закрыт");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLTimeoutException("Нет свободных соединений с БД за " + acquireTimeoutMillis + " мс");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание соединения прервано", e);
+        }
+        try {
+            PooledConnection connection = takeIdle();
+            if (connection == null) {
+                connection = new PooledConnection(this, DriverManager.getConnection(url, user, password));
+            }
+            connection.markAcquired();
+            inUse.incrementAndGet();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Берёт свободное соединение, отбрасывая закрытые и не прошедшие проверку.
+     * @return соединение или null, если подходящих свободных нет
+     */
+    private PooledConnection takeIdle() {
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            if (isUsable(connection)) {
+                return connection;
+            }
+            connection.discard();
+        }
+        return null;
+    }
+
+    /**
+     * Проверяет свободное соединение: недавно использованные считаются рабочими без обращения к БД.
+     */
+    private boolean isUsable(PooledConnection connection) {
+        try {
+            if (connection.getConnection().isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - connection.getReleasedAt() < validateAfterIdleMillis) {
+                return true;
+            }
+            return connection.getConnection().isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Возвращает соединение в пул. Вызывается из {@link PooledConnection#close()}.
+     * Незавершённая транзакция откатывается; сломанное соединение закрывается.
+     *
+     * @param connection возвращаемое соединение
+     */
+    void release(PooledConnection connection) {
+        inUse.decrementAndGet();
+        try {
+            Connection raw = connection.getConnection();
+            if (closed || raw.isClosed()) {
+                connection.discard();
+                return;
+            }
+            if (!raw.getAutoCommit()) {
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            connection.markReleased();
+            idle.offerFirst(connection);
+        } catch (SQLException e) {
+            logger.warning("Соединение с БД исключено из пула: " + e.getMessage());
+            connection.discard();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Возвращает количество выданных соединений.
+     * @return количество используемых соединений
+     */
+    public int getInUse() {
+        return inUse.get();
+    }
+
+    /**
+     * Возвращает количество свободных открытых соединений.
+     * @return количество свободных соединений
+     */
+    public int getIdle() {
+        return idle.size();
+    }
+
+    /**
+     * Возвращает максимальный размер пула.
+     * @return максимальное количество соединений
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Возвращает количество потоков, ожидающих соединение.
+     * @return длина очереди ожидания
+     */
+    public int getWaiting() {
+        return permits.getQueueLength();
+    }
+
+    /**
+     * Возвращает строку с показателями пула.
+     * @return используемые, свободные, максимум и ожидающие
+     */
+    @Override
+    public String toString() {
+        return "Соединения с БД: используются " + getInUse() + ", свободны " + getIdle()
+                + ", максимум " + maxSize + ", ожидают " + getWaiting();
+    }
+
+    /**
+     * Закрывает пул и все свободные соединения.
+     * Выданные соединения закрываются при возврате.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            connection.discard();
+        }
+    }
+}
@@ -5,29 +5,56 @@ import org.example.mainClasses.Label;
 import org.example.mainClasses.MusicBand;
 import org.example.mainClasses.MusicGenre;
 import org.example.network.User;
+import org.example.utility.Config;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.SecureRandom;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 /**
  * Менеджер для работы с базой данных приложения.
  * Обеспечивает все операции с базой данных: аутентификацию пользователей,
- * CRUD операции с музыкальными группами, управление соединением с БД.
+ * CRUD операции с музыкальными группами, управление соединениями с БД.
+ * Каждая операция берёт соединение из общего {@link ConnectionPool} и возвращает его по завершении,
+ * поэтому менеджер можно использовать из нескольких потоков одновременно.
  */
 public class DataBaseManager {
-    /** Соединение с базой данных */
-    private final Connection connection;
+    /** Пул соединений с базой данных */
+    private final ConnectionPool pool;
+
+    /** Групповая фиксация одиночных изменений (добавление, изменение, удаление) */
+    private final WriteCoalescer writes;
 
     /** Менеджер SQL-запросов */
     private final QueryManager queryManager = new QueryManager();
 
+    /** Хеширование паролей (число итераций PBKDF2 — параметр server.auth.pbkdf2.iterations) */
+    private final PasswordManager passwordManager =
+            new PasswordManager(Config.getInt("server.auth.pbkdf2.iterations", PasswordManager.DEFAULT_ITERATIONS));
+
+    /** Источник случайных солей */
+    private final SecureRandom random = new SecureRandom();
+
+    /** Количество строк, получаемых из БД за одно обращение при загрузке коллекции */
+    private final int fetchSize = Math.max(1, Config.getInt("server.db.fetch.size", 1000));
+
     /**
      * Конструктор менеджера БД.
-     * Инициализирует соединение с базой данных на основе параметров из файла properties.txt.
-     * @throws SQLException если не удалось установить соединение с БД
+     * Создаёт пул соединений на основе параметров из файла properties.txt:
+     * db.url, db.user, db.password, а также server.db.pool.size (по умолчанию server.db.concurrency),
+     * server.db.pool.timeout (мс) и server.db.pool.validate (мс простоя до проверки соединения);
+     * групповая фиксация настраивается параметрами server.db.group.size и server.db.group.window (мкс).
+     * Проверяет доступность базы, открывая первое соединение, и при необходимости переводит
+     * таблицу bands на типизированные столбцы (см. {@link #migrateSchema(PooledConnection)}).
+     * @throws SQLException если не удалось установить соединение с БД или выполнить миграцию
      */
     public DataBaseManager() throws SQLException {
         try (InputStream input = getClass().getClassLoader().getResourceAsStream("properties.txt")) {
@@ -39,68 +66,193 @@ public class DataBaseManager {
             String url = prop.getProperty("db.url");
             String user = prop.getProperty("db.user");
             String password = prop.getProperty("db.password");
-            this.connection = DriverManager.getConnection(url, user, password);
+            this.pool = new ConnectionPool(url, user, password,
+                    Config.getInt("server.db.pool.size", Config.getInt("server.db.concurrency", 3)),
+                    Config.getInt("server.db.pool.timeout", 5000),
+                    Config.getInt("server.db.pool.validate", 30000));
         } catch (IOException e) {
             throw new SQLException("Ошибка загрузки конфигурации БД");
         }
+        this.writes = createWriteCoalescer(pool);
+        // первое соединение открывается сразу, чтобы ошибки настройки были видны при запуске
+        try (PooledConnection pooled = pool.acquire()) {
+            migrateSchema(pooled);
+        }
     }
 
     /**
-     * Закрывает соединение с базой данных.
-     * @throws SQLException если произошла ошибка при закрытии соединения
+     * Переводит столбцы таблицы bands, хранившиеся строками, на собственные типы:
+     * creationdate — в timestamp, genre — в код жанра (smallint, см. {@link MusicGenre#getCode()}).
+     * Уже переведённые столбцы не изменяются, поэтому миграцию можно выполнять при каждом запуске.
+     * Оба столбца переводятся в одной транзакции.
+     * Также создаёт учёт изменений ({@link QueryManager#revisionSchema}), если его ещё нет,
+     * и расширяет столбец пароля под хеш PBKDF2.
+     * @param pooled соединение
+     * @throws SQLException если миграцию не удалось выполнить
      */
-    public void close() throws SQLException {
-        if (this.connection != null && !this.connection.isClosed()) {
-            this.connection.close();
+    private void migrateSchema(PooledConnection pooled) throws SQLException {
+        try (Statement statement = pooled.getConnection().createStatement()) {
+            for (String ddl : queryManager.revisionSchema) {
+                statement.executeUpdate(ddl);
+            }
+            statement.executeUpdate(queryManager.widenPassword);
+        }
+        List<String> migrations = new ArrayList<>(2);
+        try (ResultSet resultSet = pooled.prepare(queryManager.bandColumnTypes).executeQuery()) {
+            while (resultSet.next()) {
+                String column = resultSet.getString(1);
+                String type = resultSet.getString(2);
+                if ("creationdate".equals(column) && !type.startsWith("timestamp")) {
+                    migrations.add(queryManager.migrateCreationDate);
+                } else if ("genre".equals(column) && !"smallint".equals(type)) {
+                    StringJoiner names = new StringJoiner(", ");
+                    for (MusicGenre genre : MusicGenre.values()) {
+                        names.add("'" + genre.name() + "'");
+                    }
+                    migrations.add(String.format(queryManager.migrateGenre, names));
+                }
+            }
         }
+        if (migrations.isEmpty()) {
+            return;
+        }
+        Connection connection = pooled.getConnection();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String migration : migrations) {
+                statement.executeUpdate(migration);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+        System.err.println("Схема таблицы bands обновлена, переведено столбцов: " + migrations.size());
+    }
+
+    /**
+     * Создаёт групповую фиксацию изменений по параметрам из properties.txt.
+     * @param pool пул соединений
+     * @return групповая фиксация
+     */
+    private static WriteCoalescer createWriteCoalescer(ConnectionPool pool) {
+        return new WriteCoalescer(pool, Config.getInt("server.db.group.size", 64),
+                Config.getInt("server.db.group.window", 200));
+    }
+
+    /**
+     * Возвращает групповую фиксацию изменений (например, для вывода её показателей).
+     * @return групповая фиксация
+     */
+    public WriteCoalescer getWrites() {
+        return writes;
+    }
+
+    /**
+     * Возвращает менеджер паролей (например, для вывода показателей хеширования).
+     * @return менеджер паролей
+     */
+    public PasswordManager getPasswordManager() {
+        return passwordManager;
+    }
+
+    /**
+     * Возвращает пул соединений (например, для вывода его показателей).
+     * @return пул соединений
+     */
+    public ConnectionPool getPool() {
+        return pool;
+    }
+
+    /**
+     * Закрывает пул соединений с базой данных.
+     */
+    public void close() {
+        pool.close();
     }
 
     /**
      * Проверяет существование пользователя в базе данных.
+     * Хеш и соль читаются из БД, а пароль проверяется уже после возврата соединения в пул,
+     * чтобы хеширование не занимало соединение. Хеш старого формата (или с другим числом итераций)
+     * после успешной проверки заменяется новым.
      * @param user пользователь для проверки
      * @return true если пользователь существует и пароль верный, иначе false
      */
     public boolean existUser(User user) {
-        try {
-            PasswordManager passwordManager = new PasswordManager();
-            Connection connection = this.connection;
-            PreparedStatement preparedStatement = connection.prepareStatement(queryManager.findingUser);
+        if (user == null || user.getLogin() == null || user.getPassword() == null) {
+            return false;
+        }
+        List<String[]> candidates = new ArrayList<>(1);
+        try (PooledConnection pooled = pool.acquire()) {
+            PreparedStatement preparedStatement = pooled.prepare(queryManager.findingUser);
             preparedStatement.setString(1, user.getLogin());
-            ResultSet resultSet = preparedStatement.executeQuery();
-            while(resultSet.next()) {
-                String password = user.getPassword() + resultSet.getString("salt");
-                if(resultSet.getString("password").equals(passwordManager.hashPassword(password))) {
-                    resultSet.close();
-                    return true;
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    candidates.add(new String[] {resultSet.getString("password"), resultSet.getString("salt")});
                 }
-
             }
         } catch (SQLException e) {
             System.err.println("Ошибка выполнения запроса");
             e.printStackTrace();
             return false;
         }
+        for (String[] candidate : candidates) {
+            if (passwordManager.verify(user.getPassword(), candidate[1], candidate[0])) {
+                if (passwordManager.needsRehash(candidate[0])) {
+                    rehashUser(user, candidate[0], candidate[1]);
+                }
+                return true;
+            }
+        }
         return false;
     }
 
     /**
-     * Добавляет нового пользователя в базу данных.
+     * Заменяет хеш пароля пользователя хешем в текущем формате.
+     * Ошибка не мешает входу: пароль уже проверен, а хеш будет пересчитан при следующем входе.
+     * @param user пользователь с проверенным паролем
+     * @param stored прежний хеш
+     * @param salt соль пользователя
+     */
+    private void rehashUser(User user, String stored, String salt) {
+        String hash = passwordManager.hash(user.getPassword(), salt);
+        try (PooledConnection pooled = pool.acquire()) {
+            PreparedStatement pr = pooled.prepare(queryManager.rehashUser);
+            pr.setString(1, hash);
+            pr.setString(2, user.getLogin());
+            pr.setString(3, stored);
+            pr.executeUpdate();
+        } catch (SQLException e) {
+            System.err.println("Не удалось обновить хеш пароля: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Добавляет нового пользователя в базу данных, если логин ещё не занят.
+     * Пароль хешируется один раз, до получения соединения.
      * @param user пользователь для добавления
+     * @return true, если пользователь добавлен; false, если логин занят или произошла ошибка
      */
-    public void addUser(User user) {
-        try {
-            PasswordManager passwordManager = new PasswordManager();
-            String salt = saltGenerator();
-            Connection connection = this.connection;
-            String password = passwordManager.hashPassword(user.getPassword() + salt);
-            PreparedStatement pr = connection.prepareStatement(queryManager.addUser);
+    public boolean addUser(User user) {
+        if (user == null || user.getLogin() == null || user.getPassword() == null) {
+            return false;
+        }
+        String salt = saltGenerator();
+        String password = passwordManager.hash(user.getPassword(), salt);
+        try (PooledConnection pooled = pool.acquire()) {
+            PreparedStatement pr = pooled.prepare(queryManager.addUser);
             pr.setString(1, user.getLogin());
             pr.setString(2, password);
             pr.setString(3, salt);
-            pr.executeUpdate();
+            pr.setString(4, user.getLogin());
+            return pr.executeUpdate() > 0;
         } catch (SQLException e) {
             System.err.println("Ошибка при выполнении запроса");
             e.printStackTrace();
+            return false;
         }
     }
 
@@ -111,29 +263,16 @@ public class DataBaseManager {
      * @return ID добавленной группы или -1 при ошибке
      */
     public int addbands(MusicBand band, User user) {
-        Connection connection = this.connection;
         try {
-            PreparedStatement pr = connection.prepareStatement(queryManager.addBand);
-            pr.setString(1,band.getName());
-            pr.setFloat(2, band.getCoordinates().getX());
-            pr.setLong(3, band.getCoordinates().getY());
-            pr.setInt(4,band.getNumberOfParticipants());
-            pr.setString(5,band.getCreationDate());
-            pr.setString(6,band.getGenre().toString());
-            pr.setString(7, band.getLabelName());
-            pr.setInt(8,band.getLabel().getBands());
-            pr.setLong(9,band.getLabel().getSales());
-            pr.setString(10,user.getLogin());
-            ResultSet resultSet = pr.executeQuery();
-            if (!resultSet.next()) {
-                System.err.println("Не удалось добавить объект");
-                resultSet.close();
-                return -1;
-            }
-            System.err.println("Объект успешно добавлен");
-            int num = resultSet.getInt(1);
-            resultSet.close();
-            return num;
+            int id = writes.execute(pooled -> {
+                PreparedStatement pr = pooled.prepare(queryManager.addBand);
+                setBandFields(pr, band, user.getLogin());
+                try (ResultSet resultSet = pr.executeQuery()) {
+                    return resultSet.next() ? resultSet.getInt(1) : -1;
+                }
+            });
+            System.err.println(id == -1 ? "Не удалось добавить объект" : "Объект успешно добавлен");
+            return id;
         } catch (SQLException e) {
             System.err.println("Ошибка при выполнении запроса");
             e.printStackTrace();
@@ -141,6 +280,68 @@ public class DataBaseManager {
         }
     }
 
+    /**
+     * Добавляет несколько музыкальных групп в базу данных одним пакетом в одной транзакции.
+     * Либо добавляются все группы, либо (при ошибке) ни одной.
+     * @param bands музыкальные группы для добавления
+     * @param user пользователь, добавляющий группы
+     * @return ID добавленных групп в том же порядке или пустой список при ошибке
+     */
+    public List<Long> addBands(List<MusicBand> bands, User user) {
+        List<Long> ids = new ArrayList<>(bands.size());
+        if (bands.isEmpty()) {
+            return ids;
+        }
+        try (PooledConnection pooled = pool.acquire()) {
+            Connection connection = pooled.getConnection();
+            PreparedStatement pr = pooled.prepare(queryManager.addBandBatch, "id");
+            connection.setAutoCommit(false);
+            for (MusicBand band : bands) {
+                setBandFields(pr, band, user.getLogin());
+                pr.addBatch();
+            }
+            pr.executeBatch();
+            try (ResultSet keys = pr.getGeneratedKeys()) {
+                while (keys.next()) {
+                    ids.add(keys.getLong(1));
+                }
+            }
+            if (ids.size() != bands.size()) {
+                // при возврате в пул незавершённая транзакция откатывается
+                System.err.println("Не удалось добавить объекты");
+                return new ArrayList<>();
+            }
+            connection.commit();
+            connection.setAutoCommit(true);
+            System.err.println("Объекты успешно добавлены: " + ids.size());
+            return ids;
+        } catch (SQLException e) {
+            System.err.println("Ошибка при выполнении запроса");
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Заполняет поля музыкальной группы в запросе добавления или изменения (параметры 1–10).
+     * @param pr подготовленный запрос
+     * @param band музыкальная группа
+     * @param login логин владельца
+     * @throws SQLException если параметр не удалось установить
+     */
+    private void setBandFields(PreparedStatement pr, MusicBand band, String login) throws SQLException {
+        pr.setString(1,band.getName());
+        pr.setFloat(2, band.getCoordinates().getX());
+        pr.setLong(3, band.getCoordinates().getY());
+        pr.setInt(4,band.getNumberOfParticipants());
+        pr.setObject(5, band.getCreationDateTime());
+        pr.setShort(6, band.getGenre().getCode());
+        pr.setString(7, band.getLabelName());
+        pr.setInt(8,band.getLabel().getBands());
+        pr.setLong(9,band.getLabel().getSales());
+        pr.setString(10,login);
+    }
+
     /**
      * Обновляет музыкальную группу в базе данных.
      * @param id ID группы для обновления
@@ -149,22 +350,13 @@ public class DataBaseManager {
      * @return true если обновление успешно, иначе false
      */
     public boolean updateObject(Long id, User user, MusicBand band) {
-        Connection connection = this.connection;
         try {
-            PreparedStatement pr = connection.prepareStatement(queryManager.updateObj);
-            pr.setString(1,band.getName());
-            pr.setFloat(2, band.getCoordinates().getX());
-            pr.setLong(3,band.getCoordinates().getY());
-            pr.setInt(4,band.getNumberOfParticipants());
-            pr.setString(5,band.getCreationDate());
-            pr.setString(6,band.getGenre().toString());
-            pr.setString(7,band.getLabelName());
-            pr.setInt(8,band.getLabel().getBands());
-            pr.setLong(9,band.getLabel().getSales());
-            pr.setString(10,band.getUserLogin());
-            pr.setLong(11,id);
-            int rows = pr.executeUpdate();
-            return rows > 0;
+            return writes.execute(pooled -> {
+                PreparedStatement pr = pooled.prepare(queryManager.updateObj);
+                setBandFields(pr, band, band.getUserLogin());
+                pr.setLong(11,id);
+                return pr.executeUpdate() > 0;
+            });
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
@@ -172,26 +364,36 @@ public class DataBaseManager {
     }
 
     /**
-     * Удаляет музыкальные группы пользователя по списку ID.
+     * Удаляет музыкальные группы пользователя по списку ID одним запросом.
+     * ID передаются массивом, удаляются только строки, принадлежащие пользователю.
      * @param user пользователь, чьи группы удаляются
      * @param ids список ID групп для удаления
-     * @return true если удаление успешно, иначе false
+     * @return ID действительно удалённых групп (пустой список, если ничего не удалено или произошла ошибка)
      */
-    public boolean deleteUserObjects(User user, List<Long> ids) {
-        Connection connection = this.connection;
-        try {
-            for (long id: ids) {
-                PreparedStatement pr = connection.prepareStatement(queryManager.deleteObj);
+    public List<Long> deleteUserObjects(User user, List<Long> ids) {
+        List<Long> deleted = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return deleted;
+        }
+        try (PooledConnection pooled = pool.acquire()) {
+            PreparedStatement pr = pooled.prepare(queryManager.deleteUserObjs);
+            Array idArray = pooled.getConnection().createArrayOf("bigint", ids.toArray());
+            try {
                 pr.setString(1, user.getLogin());
-                pr.setLong(2,id);
-                ResultSet resultSet = pr.executeQuery();
-                resultSet.close();
-                return resultSet.next();
-
+                pr.setArray(2, idArray);
+                try (ResultSet resultSet = pr.executeQuery()) {
+                    while (resultSet.next()) {
+                        deleted.add(resultSet.getLong(1));
+                    }
+                }
+            } finally {
+                idArray.free();
             }
-            return false;
+            return deleted;
         } catch (SQLException e) {
-            return false;
+            System.err.println("Ошибка при выполнении запроса");
+            e.printStackTrace();
+            return new ArrayList<>();
         }
     }
 
@@ -202,49 +404,219 @@ public class DataBaseManager {
      * @return true если удаление успешно, иначе false
      */
     public Boolean deleteObject(User user, long id) {
-        Connection connection = this.connection;
         try {
-            PreparedStatement pr = connection.prepareStatement(queryManager.deleteObj);
-            pr.setString(1,user.getLogin());
-            pr.setLong(2,id);
-            ResultSet resultSet = pr.executeQuery();
-            resultSet.close();
-            return resultSet.next();
+            return writes.execute(pooled -> {
+                PreparedStatement pr = pooled.prepare(queryManager.deleteObj);
+                pr.setString(1,user.getLogin());
+                pr.setLong(2,id);
+                // результат читается до закрытия: RETURNING id возвращает строку, только если объект удалён
+                try (ResultSet resultSet = pr.executeQuery()) {
+                    return resultSet.next();
+                }
+            });
         } catch (SQLException e) {
             return false;
         }
     }
 
     /**
-     * Создает коллекцию музыкальных групп из базы данных.
-     * @return стек объектов MusicBand
+     * Загружает музыкальные группы из базы данных по возрастанию ID, передавая каждую
+     * в обработчик сразу после чтения строки, без промежуточной коллекции.
+     * Строки получаются порциями по server.db.fetch.size (курсор работает только вне режима
+     * автофиксации), поэтому в памяти одновременно находится не больше одной порции строк.
+     * @param sink обработчик загруженных групп
+     * @return количество загруженных групп
+     * @throws SQLException если запрос не удалось выполнить
+     * @throws IllegalArgumentException если поля объекта не валидны (например, неизвестный код жанра)
      */
-    public Stack<MusicBand> createCollection() {
-        Connection connection = this.connection;
-        Stack<MusicBand> bands = new Stack<>();
+    public int loadBands(Consumer<MusicBand> sink) throws SQLException {
+        try (PooledConnection pooled = pool.acquire()) {
+            return streamBands(pooled, pooled.prepare(queryManager.addObjects), sink);
+        }
+    }
+
+    /**
+     * Загружает музыкальные группы из базы данных параллельно: диапазон ID делится на равные части,
+     * каждая загружается на своём соединении в отдельном потоке, а затем части передаются
+     * в обработчик по порядку на вызывающем потоке, так что порядок тот же, что у {@link #loadBands(Consumer)}.
+     * Частей не больше размера пула соединений; если строк мало для разбиения
+     * (меньше server.db.fetch.size на часть), загрузка идёт последовательно.
+     * Части читаются разными транзакциями, поэтому метод рассчитан на запуск сервера,
+     * когда таблицу никто не изменяет.
+     * @param partitions желаемое количество частей
+     * @param sink обработчик загруженных групп
+     * @return количество загруженных групп
+     * @throws SQLException если запрос не удалось выполнить
+     * @throws IllegalArgumentException если поля объекта не валидны
+     */
+    public int loadBands(int partitions, Consumer<MusicBand> sink) throws SQLException {
+        long minId;
+        long maxId;
+        try (PooledConnection pooled = pool.acquire()) {
+            try (ResultSet resultSet = pooled.prepare(queryManager.bandIdRange).executeQuery()) {
+                resultSet.next();
+                minId = resultSet.getLong(1);
+                if (resultSet.wasNull()) {
+                    return 0;
+                }
+                maxId = resultSet.getLong(2);
+            }
+        }
+        long span = maxId - minId + 1;
+        int parts = (int) Math.min(Math.min(partitions, pool.getMaxSize()), Math.max(1, span / fetchSize));
+        if (parts <= 1) {
+            return loadBands(sink);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(parts);
         try {
-            try {
-                PreparedStatement pr = connection.prepareStatement(queryManager.addObjects);
-                ResultSet resultSet = pr.executeQuery();
+            List<Future<List<MusicBand>>> loaded = new ArrayList<>(parts);
+            for (int i = 0; i < parts; i++) {
+                long from = minId + span * i / parts;
+                long to = minId + span * (i + 1) / parts;
+                loaded.add(executor.submit(() -> loadRange(from, to)));
+            }
+            int count = 0;
+            for (Future<List<MusicBand>> part : loaded) {
+                List<MusicBand> bands = part.get();
+                bands.forEach(sink);
+                count += bands.size();
+            }
+            return count;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Загрузка коллекции прервана", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException) {
+                throw (SQLException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new SQLException("Ошибка загрузки коллекции", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Загружает музыкальные группы с ID из полуоткрытого диапазона на отдельном соединении.
+     * @param from начало диапазона, включительно
+     * @param to конец диапазона, не включительно
+     * @return группы по возрастанию ID
+     * @throws SQLException если запрос не удалось выполнить
+     */
+    private List<MusicBand> loadRange(long from, long to) throws SQLException {
+        List<MusicBand> bands = new ArrayList<>();
+        try (PooledConnection pooled = pool.acquire()) {
+            PreparedStatement pr = pooled.prepare(queryManager.addObjectsRange);
+            pr.setLong(1, from);
+            pr.setLong(2, to);
+            streamBands(pooled, pr, bands::add);
+        }
+        return bands;
+    }
+
+    /**
+     * Загружает музыкальные группы, добавленные или изменённые после указанной ревизии, в порядке изменения.
+     * @param revision ревизия, после которой нужны изменения
+     * @param sink обработчик загруженных групп
+     * @return количество загруженных групп
+     * @throws SQLException если запрос не удалось выполнить
+     * @throws IllegalArgumentException если поля объекта не валидны
+     */
+    public int loadChangedBands(long revision, Consumer<MusicBand> sink) throws SQLException {
+        try (PooledConnection pooled = pool.acquire()) {
+            PreparedStatement pr = pooled.prepare(queryManager.changedObjects);
+            pr.setLong(1, revision);
+            return streamBands(pooled, pr, sink);
+        }
+    }
+
+    /**
+     * Возвращает ID музыкальных групп, удалённых после указанной ревизии.
+     * @param revision ревизия, после которой нужны удаления
+     * @return ID удалённых групп
+     * @throws SQLException если запрос не удалось выполнить
+     */
+    public List<Long> getDeletedIds(long revision) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try (PooledConnection pooled = pool.acquire()) {
+            PreparedStatement pr = pooled.prepare(queryManager.deletedIds);
+            pr.setLong(1, revision);
+            try (ResultSet resultSet = pr.executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Удаляет записи об удалениях до указанной ревизии включительно (они уже учтены в снимке).
+     * @param revision ревизия снимка
+     * @throws SQLException если запрос не удалось выполнить
+     */
+    public void pruneDeleted(long revision) throws SQLException {
+        try (PooledConnection pooled = pool.acquire()) {
+            PreparedStatement pr = pooled.prepare(queryManager.pruneDeleted);
+            pr.setLong(1, revision);
+            pr.executeUpdate();
+        }
+    }
+
+    /**
+     * Возвращает последнюю выданную ревизию таблицы bands.
+     * Каждое добавление, изменение и удаление получает новую, большую ревизию.
+     * @return ревизия (0, если изменений ещё не было)
+     * @throws SQLException если запрос не удалось выполнить
+     */
+    public long getRevision() throws SQLException {
+        try (PooledConnection pooled = pool.acquire();
+             ResultSet resultSet = pooled.prepare(queryManager.currentRevision).executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Выполняет запрос выборки музыкальных групп курсором (порциями по server.db.fetch.size)
+     * и передаёт каждую группу в обработчик сразу после чтения строки.
+     * Номера столбцов — как в {@link QueryManager#addObjects}.
+     * @param pooled соединение
+     * @param pr подготовленный запрос выборки
+     * @param sink обработчик загруженных групп
+     * @return количество загруженных групп
+     * @throws SQLException если запрос не удалось выполнить
+     */
+    private int streamBands(PooledConnection pooled, PreparedStatement pr, Consumer<MusicBand> sink)
+            throws SQLException {
+        Connection connection = pooled.getConnection();
+        connection.setAutoCommit(false);
+        try {
+            pr.setFetchSize(fetchSize);
+            int count = 0;
+            try (ResultSet resultSet = pr.executeQuery()) {
                 while (resultSet.next()) {
-                    bands.add(new MusicBand(resultSet.getLong(1),
+                    MusicBand band = new MusicBand(resultSet.getLong(1),
                             resultSet.getString(2),
                             new Coordinates(resultSet.getFloat(3),resultSet.getLong(4)),
                             resultSet.getInt(5),
-                            LocalDateTime.parse(resultSet.getString(6)),
-                            MusicGenre.valueOf(resultSet.getString(7)),
+                            resultSet.getObject(6, LocalDateTime.class),
+                            MusicGenre.fromCode(resultSet.getShort(7)),
                             new Label(resultSet.getString(8),resultSet.getInt(9),
-                                    resultSet.getLong(10))));
+                                    resultSet.getLong(10)));
+                    // Владелец нужен для проверки прав в памяти
+                    band.setUserLogin(resultSet.getString(11));
+                    sink.accept(band);
+                    count++;
                 }
-                resultSet.close();
-                return bands;
-            } catch (SQLException e) {
-                System.err.println("Ошибка выполнения запроса");
-                return new Stack<>();
             }
-        } catch (IllegalArgumentException e) {
-            System.err.println("Поля Объектов не валидны");
-            return new Stack<>();
+            connection.commit();
+            return count;
+        } finally {
+            connection.setAutoCommit(true);
         }
     }
 
@@ -254,7 +626,6 @@ public class DataBaseManager {
      */
     private String saltGenerator() {
         String alphabet = "abcdefghijklmnopqrstuvwxyz";
-        Random random = new Random();
         StringBuilder sb = new StringBuilder(15);
 
         for (int i = 0; i < 15; i++) {
@@ -0,0 +1,114 @@
+package org.example.managers;
+
+import org.example.mainClasses.Label;
+import org.example.mainClasses.MusicBand;
+
+import java.util.*;
+
+/**
+ * Вторичный индекс коллекции по лейблу.
+ * Хранит для каждого лейбла группы в порядке коллекции и обновляется при каждом изменении,
+ * поэтому группировка строится за время, пропорциональное размеру ответа, а количество
+ * элементов в группе известно без обхода коллекции.
+ * Не потокобезопасен: обновляется {@link BandStorage} под блокировкой {@link CollectionManager}.
+ */
+public class LabelIndex {
+
+    /** Группы по лейблам в порядке появления лейблов */
+    private final Map<Label, Set<MusicBand>> groups = new LinkedHashMap<>();
+
+    /**
+     * Добавляет элемент в группу его лейбла.
+     * @param band элемент
+     */
+    public void add(MusicBand band) {
+        groups.computeIfAbsent(band.getLabel(), label -> new LinkedHashSet<>()).add(band);
+    }
+
+    /**
+     * Удаляет элемент из группы его лейбла; пустая группа удаляется.
+     * @param band элемент
+     */
+    public void remove(MusicBand band) {
+        Set<MusicBand> group = groups.get(band.getLabel());
+        if (group != null && group.remove(band) && group.isEmpty()) {
+            groups.remove(band.getLabel());
+        }
+    }
+
+    /**
+     * Удаляет все группы.
+     */
+    public void clear() {
+        groups.clear();
+    }
+
+    /**
+     * Проверяет, пуст ли индекс.
+     * @return true, если групп нет
+     */
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+
+    /**
+     * Возвращает количество элементов по лейблам.
+     * @return новая таблица лейбл → количество элементов
+     */
+    public Map<Label, Integer> counts() {
+        Map<Label, Integer> counts = new LinkedHashMap<>();
+        groups.forEach((label, group) -> counts.put(label, group.size()));
+        return counts;
+    }
+
+    /**
+     * Возвращает копию групп: копируются только ссылки на элементы, поэтому копию можно
+     * вывести после снятия блокировки коллекции.
+     * @return новая таблица лейбл → элементы группы в порядке индекса
+     */
+    public Map<Label, List<MusicBand>> groups() {
+        Map<Label, List<MusicBand>> copy = new LinkedHashMap<>();
+        groups.forEach((label, group) -> copy.put(label, new ArrayList<>(group)));
+        return copy;
+    }
+
+    /**
+     * Формирует описание групп: лейбл, количество и элементы группы.
+     * @param groups группы, полученные {@link #groups()}
+     * @return строка с группировкой
+     */
+    public static String format(Map<Label, List<MusicBand>> groups) {
+        StringBuilder result = new StringBuilder();
+        for (Map.Entry<Label, List<MusicBand>> entry : groups.entrySet()) {
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append(entry.getKey()).append(", Count: ").append(entry.getValue().size()).append('\n');
+            boolean first = true;
+            for (MusicBand band : entry.getValue()) {
+                if (!first) {
+                    result.append('\n');
+                }
+                result.append(band);
+                first = false;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Формирует описание групп без элементов: лейбл и количество.
+     * @param counts количество элементов по лейблам, полученное {@link #counts()}
+     * @return строка с группировкой
+     */
+    public static String formatCounts(Map<Label, Integer> counts) {
+        StringBuilder result = new StringBuilder();
+        for (Map.Entry<Label, Integer> entry : counts.entrySet()) {
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append(entry.getKey()).append(", Count: ").append(entry.getValue());
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,67 @@
+package org.example.managers;
+
+import org.example.mainClasses.MusicBand;
+import org.example.utility.LongHashMap;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Вторичный индекс коллекции по владельцу: логин пользователя → ID его элементов.
+ * Позволяет получить элементы пользователя без обхода всей коллекции.
+ * Элементы без владельца не индексируются.
+ * Не потокобезопасен: обновляется {@link BandStorage} под блокировкой {@link CollectionManager}.
+ */
+public class OwnerIndex {
+
+    /** ID элементов по логину владельца */
+    private final Map<String, LongHashMap<MusicBand>> owners = new HashMap<>();
+
+    /**
+     * Добавляет элемент в индекс его владельца.
+     * @param band элемент
+     */
+    public void add(MusicBand band) {
+        if (band.getUserLogin() != null) {
+            owners.computeIfAbsent(band.getUserLogin(), login -> new LongHashMap<>()).put(band.getId(), band);
+        }
+    }
+
+    /**
+     * Удаляет элемент из индекса его владельца; пустой набор удаляется.
+     * @param band элемент
+     */
+    public void remove(MusicBand band) {
+        LongHashMap<MusicBand> ids = band.getUserLogin() == null ? null : owners.get(band.getUserLogin());
+        if (ids != null && ids.remove(band.getId()) != null && ids.isEmpty()) {
+            owners.remove(band.getUserLogin());
+        }
+    }
+
+    /**
+     * Удаляет все записи.
+     */
+    public void clear() {
+        owners.clear();
+    }
+
+    /**
+     * Возвращает ID элементов пользователя.
+     * @param login логин пользователя
+     * @return новый массив ID (пустой, если элементов нет)
+     */
+    public long[] ids(String login) {
+        LongHashMap<MusicBand> ids = owners.get(login);
+        return ids == null ? new long[0] : ids.keys();
+    }
+
+    /**
+     * Возвращает количество элементов пользователя.
+     * @param login логин пользователя
+     * @return количество элементов
+     */
+    public int count(String login) {
+        LongHashMap<MusicBand> ids = owners.get(login);
+        return ids == null ? 0 : ids.size();
+    }
+}
@@ -1,39 +1,233 @@
 package org.example.managers;
 
-import java.io.UnsupportedEncodingException;
-import java.math.BigInteger;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
+import java.security.spec.InvalidKeySpecException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Менеджер для хеширования паролей.
- * Обеспечивает безопасное хеширование паролей с использованием алгоритма SHA-1.
- * Используется для защиты паролей пользователей при хранении в базе данных.
+ * Новые пароли хешируются PBKDF2 (HMAC-SHA-256) с настраиваемым числом итераций и хранятся
+ * в виде {@code pbkdf2$<итерации>$<хеш>}; пароли, сохранённые раньше как SHA-1 в шестнадцатеричном
+ * виде, по-прежнему проверяются и заменяются новым хешем при входе (см. {@link #needsRehash(String)}).
+ * Объекты алгоритмов создаются один раз на поток, а хеш сравнивается с сохранённой строкой
+ * без промежуточных строк. Потокобезопасен.
  */
 public class PasswordManager {
 
+    /** Число итераций PBKDF2 по умолчанию */
+    public static final int DEFAULT_ITERATIONS = 100_000;
+
+    /** Префикс хеша PBKDF2 */
+    private static final String PBKDF2_PREFIX = "pbkdf2$";
+
+    /** Длина ключа PBKDF2 в битах */
+    private static final int KEY_BITS = 256;
+
+    /** Шестнадцатеричные цифры */
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** SHA-1 для паролей в старом формате, по одному на поток */
+    private static final ThreadLocal<MessageDigest> SHA1 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-1 недоступен", e);
+        }
+    });
+
+    /** Фабрика ключей PBKDF2, по одной на поток */
+    private static final ThreadLocal<SecretKeyFactory> PBKDF2 = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2 недоступен", e);
+        }
+    });
+
+    /** Буфер для шестнадцатеричного представления хеша, по одному на поток */
+    private static final ThreadLocal<char[]> HEX_BUFFER = ThreadLocal.withInitial(() -> new char[KEY_BITS / 4]);
+
+    /** Число итераций PBKDF2 для новых хешей */
+    private final int iterations;
+
+    /** Количество вычисленных хешей */
+    private final AtomicLong hashes = new AtomicLong();
+
+    /** Суммарное время вычисления хешей, нс */
+    private final AtomicLong hashNanos = new AtomicLong();
+
+    /**
+     * Конструктор с числом итераций по умолчанию.
+     */
+    public PasswordManager() {
+        this(DEFAULT_ITERATIONS);
+    }
+
     /**
-     * Хеширует переданный пароль с использованием алгоритма SHA-1.
+     * Конструктор менеджера паролей.
      *
-     * @param password пароль для хеширования
-     * @return хеш-строка в шестнадцатеричном представлении
-     * @throws RuntimeException если возникли проблемы с алгоритмом хеширования или кодировкой
+     * @param iterations число итераций PBKDF2 для новых хешей
      */
-    public String hashPassword(String password) {
+    public PasswordManager(int iterations) {
+        this.iterations = Math.max(1, iterations);
+    }
+
+    /**
+     * Хеширует пароль с солью для хранения.
+     *
+     * @param password пароль
+     * @param salt     соль пользователя
+     * @return хеш в виде {@code pbkdf2$<итерации>$<хеш>}
+     */
+    public String hash(String password, String salt) {
+        byte[] key = pbkdf2(password, salt, iterations);
+        char[] hex = HEX_BUFFER.get();
+        for (int i = 0; i < key.length; i++) {
+            hex[2 * i] = HEX[(key[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX[key[i] & 0xF];
+        }
+        return PBKDF2_PREFIX + iterations + '$' + new String(hex, 0, key.length * 2);
+    }
+
+    /**
+     * Проверяет пароль по сохранённому хешу (PBKDF2 или SHA-1 старого формата).
+     *
+     * @param password пароль
+     * @param salt     соль пользователя
+     * @param stored   сохранённый хеш
+     * @return true, если пароль верный
+     */
+    public boolean verify(String password, String salt, String stored) {
+        if (stored == null) {
+            return false;
+        }
+        if (!stored.startsWith(PBKDF2_PREFIX)) {
+            return hexEquals(stored, 0, legacyDigest(password, salt), true);
+        }
+        int separator = stored.indexOf('$', PBKDF2_PREFIX.length());
+        if (separator < 0) {
+            return false;
+        }
+        int storedIterations;
         try {
+            storedIterations = Integer.parseInt(stored, PBKDF2_PREFIX.length(), separator, 10);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (storedIterations < 1) {
+            return false;
+        }
+        return hexEquals(stored, separator + 1, pbkdf2(password, salt, storedIterations), false);
+    }
 
-            MessageDigest mg = MessageDigest.getInstance("SHA-1");
+    /**
+     * Проверяет, нужно ли пересчитать сохранённый хеш: он в старом формате
+     * или вычислен с другим числом итераций.
+     *
+     * @param stored сохранённый хеш
+     * @return true, если хеш стоит заменить результатом {@link #hash(String, String)}
+     */
+    public boolean needsRehash(String stored) {
+        if (stored == null || !stored.startsWith(PBKDF2_PREFIX)) {
+            return true;
+        }
+        return !stored.startsWith(PBKDF2_PREFIX + iterations + '$');
+    }
+
+    /**
+     * Возвращает число итераций PBKDF2 для новых хешей.
+     *
+     * @return число итераций
+     */
+    public int getIterations() {
+        return iterations;
+    }
 
-            // Вычисляем хеш от пароля в кодировке UTF-8
-            byte[] digest = mg.digest(password.getBytes("UTF-8"));
+    /**
+     * Вычисляет ключ PBKDF2.
+     */
+    private byte[] pbkdf2(String password, String salt, int rounds) {
+        long start = System.nanoTime();
+        PBEKeySpec spec = new PBEKeySpec(password.toCharArray(), salt.getBytes(StandardCharsets.UTF_8), rounds, KEY_BITS);
+        try {
+            return PBKDF2.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
+            throw new IllegalStateException("Ошибка при хешировании пароля", e);
+        } finally {
+            spec.clearPassword();
+            record(start);
+        }
+    }
 
-            // Преобразуем байтовый массив в шестнадцатеричную строку
-            BigInteger bg = new BigInteger(1, digest);
-            return bg.toString(16);
+    /**
+     * Вычисляет SHA-1 пароля с солью (старый формат).
+     */
+    private byte[] legacyDigest(String password, String salt) {
+        long start = System.nanoTime();
+        MessageDigest digest = SHA1.get();
+        digest.update(password.getBytes(StandardCharsets.UTF_8));
+        byte[] result = digest.digest(salt.getBytes(StandardCharsets.UTF_8));
+        record(start);
+        return result;
+    }
 
-        } catch (NoSuchAlgorithmException | UnsupportedEncodingException e) {
-            // Преобразуем checked exceptions в unchecked для удобства использования
-            throw new RuntimeException("Ошибка при хешировании пароля", e);
+    /**
+     * Учитывает время вычисления хеша.
+     */
+    private void record(long start) {
+        hashNanos.addAndGet(System.nanoTime() - start);
+        hashes.incrementAndGet();
+    }
+
+    /**
+     * Сравнивает байты с их шестнадцатеричной записью в строке, начиная с указанной позиции,
+     * без создания строк. Время сравнения не зависит от того, где найдено первое различие.
+     *
+     * @param text        строка с шестнадцатеричной записью
+     * @param from        начало записи в строке
+     * @param bytes       ожидаемые байты
+     * @param stripZeros  в записи опущены ведущие нули (так их записывал BigInteger.toString(16))
+     * @return true, если запись совпадает
+     */
+    private static boolean hexEquals(String text, int from, byte[] bytes, boolean stripZeros) {
+        int nibbles = bytes.length * 2;
+        int skip = 0;
+        if (stripZeros) {
+            while (skip < nibbles - 1 && nibble(bytes, skip) == 0) {
+                skip++;
+            }
+        }
+        if (text.length() - from != nibbles - skip) {
+            return false;
         }
+        int difference = 0;
+        for (int i = skip; i < nibbles; i++) {
+            difference |= text.charAt(from + i - skip) ^ HEX[nibble(bytes, i)];
+        }
+        return difference == 0;
+    }
+
+    /**
+     * Возвращает полубайт с указанным номером (старший полубайт байта идёт первым).
+     */
+    private static int nibble(byte[] bytes, int index) {
+        int value = bytes[index >> 1];
+        return (index & 1) == 0 ? (value >> 4) & 0xF : value & 0xF;
+    }
+
+    /**
+     * Возвращает строку с показателями хеширования.
+     *
+     * @return количество хешей и среднее время вычисления
+     */
+    @Override
+    public String toString() {
+        long count = hashes.get();
+        return "Хеширование паролей: PBKDF2 " + iterations + " итераций, вычислено " + count
+                + ", в среднем " + (count == 0 ? 0 : hashNanos.get() / count / 1000) + " мкс";
     }
-}
\ No newline at end of file
+}
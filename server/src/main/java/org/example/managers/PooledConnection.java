@@ -0,0 +1,165 @@
+package org.example.managers;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Соединение, выданное {@link ConnectionPool}.
+ * Метод {@link #close()} не закрывает соединение, а возвращает его в пул.
+ * Хранит кеш подготовленных запросов: каждый SQL-запрос разбирается один раз на соединение,
+ * а запросы закрываются вместе с соединением.
+ */
+public class PooledConnection implements AutoCloseable {
+
+    /** Пул, которому принадлежит соединение */
+    private final ConnectionPool pool;
+
+    /** Соединение с базой данных */
+    private final Connection connection;
+
+    /** Время последнего возврата в пул, мс */
+    private long releasedAt = System.currentTimeMillis();
+
+    /** Соединение выдано и ещё не возвращено */
+    private boolean leased;
+
+    /** Максимальное количество подготовленных запросов в кеше */
+    private static final int STATEMENT_CACHE_SIZE = 32;
+
+    /** Подготовленные запросы по тексту SQL; давно не использованные закрываются при переполнении */
+    private final Map<String, PreparedStatement> statements =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= STATEMENT_CACHE_SIZE) {
+                        return false;
+                    }
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+            };
+
+    /**
+     * Конструктор соединения пула.
+     *
+     * @param pool пул, которому принадлежит соединение
+     * @param connection открытое соединение с базой данных
+     */
+    PooledConnection(ConnectionPool pool, Connection connection) {
+        this.pool = pool;
+        this.connection = connection;
+    }
+
+    /**
+     * Возвращает соединение с базой данных.
+     * @return соединение
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Возвращает подготовленный запрос из кеша соединения или подготавливает новый.
+     * Запрос принадлежит соединению: его нельзя закрывать и использовать после возврата соединения в пул.
+     * Параметры предыдущего использования сбрасываются.
+     *
+     * @param sql текст запроса (например, из {@link QueryManager})
+     * @return подготовленный запрос
+     * @throws SQLException если запрос не удалось подготовить
+     */
+    public PreparedStatement prepare(String sql) throws SQLException {
+        PreparedStatement statement = statements.get(sql);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql);
+            statements.put(sql, statement);
+        } else {
+            statement.clearParameters();
+        }
+        return statement;
+    }
+
+    /**
+     * Возвращает подготовленный запрос, возвращающий сгенерированные значения указанных столбцов
+     * (см. {@link PreparedStatement#getGeneratedKeys()}), из кеша соединения или подготавливает новый.
+     *
+     * @param sql текст запроса
+     * @param generatedColumns столбцы, значения которых нужно вернуть
+     * @return подготовленный запрос
+     * @throws SQLException если запрос не удалось подготовить
+     */
+    public PreparedStatement prepare(String sql, String... generatedColumns) throws SQLException {
+        String key = sql + '\0' + String.join(",", generatedColumns);
+        PreparedStatement statement = statements.get(key);
+        if (statement == null || statement.isClosed()) {
+            statement = connection.prepareStatement(sql, generatedColumns);
+            statements.put(key, statement);
+        } else {
+            statement.clearParameters();
+            statement.clearBatch();
+        }
+        return statement;
+    }
+
+    /**
+     * Возвращает время последнего возврата в пул.
+     * @return время в миллисекундах
+     */
+    long getReleasedAt() {
+        return releasedAt;
+    }
+
+    /**
+     * Отмечает выдачу соединения из пула.
+     */
+    synchronized void markAcquired() {
+        leased = true;
+    }
+
+    /**
+     * Отмечает возврат соединения в пул.
+     */
+    void markReleased() {
+        releasedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Окончательно закрывает соединение (при исключении из пула).
+     */
+    void discard() {
+        statements.values().forEach(PooledConnection::closeQuietly);
+        statements.clear();
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // соединение и так больше не используется
+        }
+    }
+
+    /**
+     * Закрывает запрос, игнорируя ошибки.
+     */
+    private static void closeQuietly(PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignored) {
+            // запрос больше не используется
+        }
+    }
+
+    /**
+     * Возвращает соединение в пул. Повторный вызов ничего не делает.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (!leased) {
+                return;
+            }
+            leased = false;
+        }
+        pool.release(this);
+    }
+}
@@ -22,13 +22,30 @@ public class QueryManager {
     public final String getPassword = "SELECT salt FROM users WHERE name = ?;";
 
     /**
-     * SQL-запрос для добавления нового пользователя.
+     * SQL-запрос для добавления нового пользователя, если логин ещё не занят.
      * Параметры:
      * 1. Имя пользователя (String)
      * 2. Хеш пароля (String)
      * 3. Соль (String)
+     * 4. Имя пользователя (String)
+     * Возвращает: количество добавленных строк (0, если логин занят)
      */
-    public final String addUser = "INSERT INTO users (name, password, salt) VALUES (?, ?, ?);";
+    public final String addUser = "INSERT INTO users (name, password, salt) SELECT ?, ?, ? "
+            + "WHERE NOT EXISTS (SELECT 1 FROM users WHERE name = ?);";
+
+    /**
+     * SQL-запрос для замены хеша пароля (пересчёт хеша в новом формате при входе).
+     * Параметры:
+     * 1. Новый хеш пароля (String)
+     * 2. Имя пользователя (String)
+     * 3. Прежний хеш пароля (String)
+     */
+    public final String rehashUser = "UPDATE users SET password = ? WHERE name = ? AND password = ?;";
+
+    /**
+     * SQL-запрос миграции: хеш пароля в формате PBKDF2 длиннее шестнадцатеричного SHA-1.
+     */
+    public final String widenPassword = "ALTER TABLE users ALTER COLUMN password TYPE text;";
 
     /**
      * SQL-запрос для добавления музыкальной группы.
@@ -37,8 +54,8 @@ public class QueryManager {
      * 2. Координата X (float)
      * 3. Координата Y (long)
      * 4. Количество участников (int)
-     * 5. Дата создания (String)
-     * 6. Жанр (String)
+     * 5. Дата создания (timestamp)
+     * 6. Код жанра (smallint, {@link org.example.mainClasses.MusicGenre#getCode()})
      * 7. Название лейбла (String)
      * 8. Количество групп на лейбле (int)
      * 9. Продажи лейбла (long)
@@ -49,14 +66,36 @@ public class QueryManager {
             + "genre, labelname, labelbands, labelsales, userlogin) "
             + "VALUES (?,?,?,?,?,?,?,?,?,?) RETURNING id;";
 
+    /**
+     * SQL-запрос для пакетного добавления музыкальных групп.
+     * Параметры те же, что у {@link #addBand}; ID добавленных записей
+     * возвращаются как сгенерированные ключи столбца id.
+     */
+    public final String addBandBatch = "INSERT INTO bands(name, x, y, participantsnum, creationdate, "
+            + "genre, labelname, labelbands, labelsales, userlogin) "
+            + "VALUES (?,?,?,?,?,?,?,?,?,?)";
+
     /**
      * SQL-запрос для удаления музыкальной группы.
+     * ID удалённой записи сохраняется в bands_deleted, чтобы удаление попало в изменения после снимка.
      * Параметры:
      * 1. Логин пользователя (String)
      * 2. ID группы (long)
      * Возвращает: ID удаленной записи
      */
-    public final String deleteObj = "DELETE FROM bands WHERE (userlogin = ?) AND (id = ?) RETURNING id;";
+    public final String deleteObj = "WITH deleted AS (DELETE FROM bands WHERE (userlogin = ?) AND (id = ?) RETURNING id) "
+            + "INSERT INTO bands_deleted (id) SELECT id FROM deleted RETURNING id;";
+
+    /**
+     * SQL-запрос для удаления нескольких музыкальных групп пользователя одним запросом.
+     * ID удалённых записей сохраняются в bands_deleted.
+     * Параметры:
+     * 1. Логин пользователя (String)
+     * 2. ID групп (массив bigint)
+     * Возвращает: ID удаленных записей
+     */
+    public final String deleteUserObjs = "WITH deleted AS (DELETE FROM bands WHERE (userlogin = ?) AND (id = ANY (?)) "
+            + "RETURNING id) INSERT INTO bands_deleted (id) SELECT id FROM deleted RETURNING id;";
 
     /**
      * SQL-запрос для обновления информации о музыкальной группе.
@@ -65,8 +104,8 @@ public class QueryManager {
      * 2. Координата X (float)
      * 3. Координата Y (long)
      * 4. Количество участников (int)
-     * 5. Дата создания (String)
-     * 6. Жанр (String)
+     * 5. Дата создания (timestamp)
+     * 6. Код жанра (smallint)
      * 7. Название лейбла (String)
      * 8. Количество групп на лейбле (int)
      * 9. Продажи лейбла (long)
@@ -75,11 +114,95 @@ public class QueryManager {
      */
     public final String updateObj = "UPDATE bands SET name = ?, x = ?, y = ?, participantsnum = ?, "
             + "creationdate = ?, genre = ?, labelname = ?, labelbands = ?, "
-            + "labelsales = ? WHERE userlogin = ? AND id = ?";
+            + "labelsales = ?, revision = nextval('bands_revision_seq') WHERE userlogin = ? AND id = ?";
+
+    /**
+     * SQL-запрос для получения всех музыкальных групп по возрастанию ID.
+     * Столбцы перечислены явно, чтобы их номера не зависели от порядка столбцов в таблице:
+     * 1. id, 2. name, 3. x, 4. y, 5. participantsnum, 6. creationdate (timestamp),
+     * 7. genre (код), 8. labelname, 9. labelbands, 10. labelsales, 11. userlogin
+     */
+    public final String addObjects = "SELECT id, name, x, y, participantsnum, creationdate, genre, "
+            + "labelname, labelbands, labelsales, userlogin FROM bands ORDER BY id;";
+
+    /**
+     * SQL-запрос для получения музыкальных групп с ID из полуоткрытого диапазона по возрастанию ID.
+     * Столбцы те же, что у {@link #addObjects}.
+     * Параметры:
+     * 1. Начало диапазона ID, включительно (long)
+     * 2. Конец диапазона ID, не включительно (long)
+     */
+    public final String addObjectsRange = "SELECT id, name, x, y, participantsnum, creationdate, genre, "
+            + "labelname, labelbands, labelsales, userlogin FROM bands WHERE id >= ? AND id < ? ORDER BY id;";
+
+    /**
+     * SQL-запрос для получения музыкальных групп, добавленных или изменённых после указанной ревизии,
+     * в порядке изменения. Столбцы те же, что у {@link #addObjects}.
+     * Параметры:
+     * 1. Ревизия (long)
+     */
+    public final String changedObjects = "SELECT id, name, x, y, participantsnum, creationdate, genre, "
+            + "labelname, labelbands, labelsales, userlogin FROM bands WHERE revision > ? ORDER BY revision;";
+
+    /**
+     * SQL-запрос для получения ID музыкальных групп, удалённых после указанной ревизии.
+     * Параметры:
+     * 1. Ревизия (long)
+     */
+    public final String deletedIds = "SELECT id FROM bands_deleted WHERE revision > ?;";
+
+    /**
+     * SQL-запрос для удаления записей об удалениях, которые уже не нужны ни одному снимку.
+     * Параметры:
+     * 1. Ревизия (long)
+     */
+    public final String pruneDeleted = "DELETE FROM bands_deleted WHERE revision <= ?;";
+
+    /**
+     * SQL-запрос для получения последней выданной ревизии (0, если ревизии ещё не выдавались).
+     */
+    public final String currentRevision = "SELECT CASE WHEN is_called THEN last_value ELSE 0 END "
+            + "FROM bands_revision_seq;";
+
+    /**
+     * SQL-запросы, создающие учёт изменений (выполняются при каждом запуске, повторное выполнение
+     * ничего не меняет): каждое добавление и изменение получает в столбце revision номер
+     * из последовательности bands_revision_seq, а удалённые ID записываются в bands_deleted.
+     */
+    public final String[] revisionSchema = {
+            "CREATE SEQUENCE IF NOT EXISTS bands_revision_seq;",
+            "ALTER TABLE bands ADD COLUMN IF NOT EXISTS revision bigint NOT NULL "
+                    + "DEFAULT nextval('bands_revision_seq');",
+            "CREATE INDEX IF NOT EXISTS bands_revision_idx ON bands (revision);",
+            "CREATE TABLE IF NOT EXISTS bands_deleted (id bigint NOT NULL, "
+                    + "revision bigint NOT NULL DEFAULT nextval('bands_revision_seq'));",
+            "CREATE INDEX IF NOT EXISTS bands_deleted_revision_idx ON bands_deleted (revision);"
+    };
+
+    /**
+     * SQL-запрос для получения наименьшего и наибольшего ID музыкальных групп (для разбиения на диапазоны).
+     * Возвращает: минимальный и максимальный ID (null, если таблица пуста)
+     */
+    public final String bandIdRange = "SELECT min(id), max(id) FROM bands;";
+
+    /**
+     * SQL-запрос для получения типов столбцов creationdate и genre таблицы bands (для миграции схемы).
+     * Возвращает: название столбца и его тип
+     */
+    public final String bandColumnTypes = "SELECT column_name, data_type FROM information_schema.columns "
+            + "WHERE table_name = 'bands' AND column_name IN ('creationdate', 'genre');";
+
+    /**
+     * SQL-запрос миграции: дата создания из строки ISO-8601 в timestamp.
+     */
+    public final String migrateCreationDate = "ALTER TABLE bands ALTER COLUMN creationdate TYPE timestamp "
+            + "USING creationdate::timestamp;";
 
     /**
-     * SQL-запрос для получения всех музыкальных групп.
-     * Возвращает все поля таблицы bands.
+     * SQL-запрос миграции: жанр из названия в код (smallint).
+     * Параметр — список названий жанров в порядке кодов, подставляется при выполнении:
+     * запрос ALTER TABLE не поддерживает параметры.
      */
-    public final String addObjects = "SELECT * FROM bands;";
+    public final String migrateGenre = "ALTER TABLE bands ALTER COLUMN genre TYPE smallint "
+            + "USING (array_position(ARRAY[%s]::text[], genre::text) - 1);";
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package org.example.managers;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Кеш результатов команд, которые только читают коллекцию.
+ * Результат хранится вместе с версией коллекции, на которой он получен, и выдаётся,
+ * только пока версия не изменилась: любое изменение коллекции увеличивает версию
+ * (см. {@link CollectionManager#getVersion()}), и следующий запрос вычисляет результат заново.
+ * Размер кеша ограничен суммарным объёмом строк; при переполнении вытесняются
+ * давно не запрашивавшиеся результаты.
+ * <p>
+ * Одинаковые запросы, пришедшие, пока результат ещё вычисляется, не запускают своё вычисление,
+ * а дожидаются уже начатого на той же версии коллекции и получают его результат. Это работает
+ * и при нулевом объёме кеша. Потокобезопасен.
+ */
+public class ResponseCache {
+
+    /** Примерный объём служебных данных одной записи, байт */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * Результат команды на определённой версии коллекции.
+     */
+    private static final class Entry {
+        private final long version;
+        private final String result;
+        private final long bytes;
+
+        private Entry(long version, String result, long bytes) {
+            this.version = version;
+            this.result = result;
+            this.bytes = bytes;
+        }
+    }
+
+    /** Менеджер коллекции, версия которой проверяется */
+    private final CollectionManager collectionManager;
+
+    /** Максимальный суммарный объём записей, байт */
+    private final long maxBytes;
+
+    /** Записи по команде и аргументам; порядок — от давно запрошенных к недавним */
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    /**
+     * Вычисление результата, которое ещё не завершилось.
+     */
+    private static final class Flight {
+        private final long version;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private Flight(long version) {
+            this.version = version;
+        }
+    }
+
+    /** Незавершённые вычисления по команде и аргументам */
+    private final ConcurrentHashMap<String, Flight> inFlight = new ConcurrentHashMap<>();
+
+    /** Блокировка записей (не монитор, чтобы не закреплять виртуальные потоки) */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Текущий суммарный объём записей, байт; изменяется под блокировкой */
+    private long bytes;
+
+    /** Количество попаданий */
+    private final AtomicLong hits = new AtomicLong();
+
+    /** Количество промахов */
+    private final AtomicLong misses = new AtomicLong();
+
+    /** Количество запросов, дождавшихся чужого вычисления */
+    private final AtomicLong coalesced = new AtomicLong();
+
+    /** Количество вытесненных записей */
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Конструктор кеша.
+     * @param collectionManager менеджер коллекции
+     * @param maxBytes максимальный суммарный объём результатов, байт
+     */
+    public ResponseCache(CollectionManager collectionManager, long maxBytes) {
+        this.collectionManager = collectionManager;
+        this.maxBytes = Math.max(0, maxBytes);
+    }
+
+    /**
+     * Возвращает результат команды из кеша, если он получен на текущей версии коллекции,
+     * иначе вычисляет и сохраняет его. Если такой же результат на той же версии уже вычисляется
+     * другим потоком, дожидается его.
+     * Версия читается до вычисления: если коллекция за это время изменится, результат
+     * сохранится с устаревшей версией и больше не будет выдан.
+     *
+     * @param command название команды
+     * @param args аргументы команды (сравниваются по строковому представлению)
+     * @param compute вычисление результата
+     * @return результат команды
+     */
+    public String get(String command, Object args, Supplier<String> compute) {
+        String key = args == null ? command : command + '\0' + args;
+        long version = collectionManager.getVersion();
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.version == version) {
+                hits.incrementAndGet();
+                return entry.result;
+            }
+        } finally {
+            lock.unlock();
+        }
+        Flight own = new Flight(version);
+        // вычисление на старой версии заменяется: его результат этому запросу уже не подходит
+        Flight running = inFlight.compute(key, (k, flight) -> flight != null && flight.version == version ? flight : own);
+        if (running != own) {
+            coalesced.incrementAndGet();
+            return await(running);
+        }
+        misses.incrementAndGet();
+        try {
+            String result = compute.get();
+            put(key, new Entry(version, result, ENTRY_OVERHEAD + 2L * (key.length() + result.length())));
+            own.result.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Дожидается чужого вычисления; его исключение пробрасывается как есть.
+     */
+    private static String await(Flight flight) {
+        try {
+            return flight.result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Сохраняет запись и вытесняет давно не запрашивавшиеся, пока объём не уложится в предел.
+     */
+    private void put(String key, Entry entry) {
+        if (entry.bytes > maxBytes) {
+            return;
+        }
+        lock.lock();
+        try {
+            Entry previous = entries.get(key);
+            if (previous != null && previous.version > entry.version) {
+                // пока результат вычислялся, другой поток уже сохранил более новый
+                return;
+            }
+            if (previous != null) {
+                bytes -= previous.bytes;
+            }
+            entries.put(key, entry);
+            bytes += entry.bytes;
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (bytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Entry> evicted = eldest.next();
+                bytes -= evicted.getValue().bytes;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает текущую версию коллекции, с которой сверяются записи.
+     * @return версия коллекции
+     */
+    public long getVersion() {
+        return collectionManager.getVersion();
+    }
+
+    /**
+     * Удаляет все записи.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+            bytes = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Возвращает строку с показателями кеша.
+     * @return попадания, промахи, объединённые запросы, доля попаданий, вытеснения и занятый объём
+     */
+    @Override
+    public String toString() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        long used;
+        int size;
+        lock.lock();
+        try {
+            used = bytes;
+            size = entries.size();
+        } finally {
+            lock.unlock();
+        }
+        return "Кеш ответов: попаданий " + hitCount + ", промахов " + (total - hitCount)
+                + ", объединено " + coalesced.get() + ", доля попаданий " + (total == 0 ? 0 : hitCount * 100 / total) + "%, вытеснено "
+                + evictions.get() + ", записей " + size + ", занято " + used / 1024 + " из " + maxBytes / 1024 + " КБ";
+    }
+}
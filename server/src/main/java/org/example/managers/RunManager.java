@@ -1,21 +1,161 @@
 package org.example.managers;
 
+import org.example.commands.Command;
+import org.example.network.LoginError;
 import org.example.network.Request;
 import org.example.network.Response;
-import org.example.utility.UserScanner;
+import org.example.utility.ExecutionMode;
 
-import java.util.NoSuchElementException;
-import java.util.Scanner;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Менеджер выполнения запросов.
+ * Выполняет команды в исполнителе, выбранном режимом {@link ExecutionMode},
+ * и ограничивает число одновременно выполняемых команд, работающих с базой данных.
+ */
 public class RunManager  {
     private final CommandManager commandManager;
-    public RunManager(CommandManager commandManager) {
+
+    /** Исполнитель команд */
+    private final ExecutorService executor;
+
+    /**
+     * Исполнитель входа и регистрации (хеширование паролей) с ограниченной очередью:
+     * поток запросов на вход не занимает потоки остальных команд и не копится без предела.
+     */
+    private final ThreadPoolExecutor authExecutor;
+
+    /** Разрешения на одновременное выполнение команд, работающих с базой данных */
+    private final Semaphore dataBasePermits;
+
+    /** Менеджер сессий, проверяющий токены запросов */
+    private final SessionManager sessionManager;
+
+    public RunManager(CommandManager commandManager, SessionManager sessionManager) {
+        this(commandManager, sessionManager, ExecutionMode.POOLED, 3, 3, 2, 64);
+    }
+
+    /**
+     * Конструктор менеджера выполнения.
+     *
+     * @param commandManager менеджер команд
+     * @param sessionManager менеджер сессий
+     * @param mode режим выполнения команд
+     * @param threads размер пула потоков для режима POOLED
+     * @param dataBaseConcurrency максимальное число одновременно выполняемых команд, работающих с БД
+     * @param authThreads количество потоков входа и регистрации
+     * @param authQueue максимальное количество ожидающих запросов входа и регистрации
+     */
+    public RunManager(CommandManager commandManager, SessionManager sessionManager, ExecutionMode mode,
+                      int threads, int dataBaseConcurrency, int authThreads, int authQueue) {
         this.commandManager = commandManager;
+        this.sessionManager = sessionManager;
+        this.executor = mode.createExecutor(threads);
+        AtomicInteger authThreadNumber = new AtomicInteger();
+        this.authExecutor = new ThreadPoolExecutor(Math.max(1, authThreads), Math.max(1, authThreads),
+                0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, authQueue)),
+                task -> new Thread(task, "auth-" + authThreadNumber.incrementAndGet()));
+        this.dataBasePermits = new Semaphore(dataBaseConcurrency, true);
     }
 
     public Response run(Request request) {
         return commandManager.execute(request);
 
     }
+
+    /**
+     * Передаёт запрос на выполнение в исполнитель команд.
+     *
+     * @param request запрос клиента
+     * @return ожидание ответа на запрос
+     */
+    public CompletableFuture<Response> submit(Request request) {
+        Command command = getCommand(request.getCommand().getName());
+        if (command != null && !command.requiresSession()) {
+            // вход и регистрация выполняются отдельно: их стоимость определяется хешированием пароля
+            try {
+                return CompletableFuture.supplyAsync(() -> run(request), authExecutor);
+            } catch (RejectedExecutionException e) {
+                return CompletableFuture.completedFuture(
+                        new Response(LoginError.LOGIN_ERROR, "Сервер перегружен, повторите вход позже"));
+            }
+        }
+        try {
+            return CompletableFuture.supplyAsync(() -> execute(request), executor);
+        } catch (RejectedExecutionException e) {
+            // исполнитель уже остановлен: клиент получает ответ, а не ждёт его бесконечно
+            return CompletableFuture.completedFuture(new Response("Сервер останавливается, повторите запрос позже"));
+        }
     }
 
+    /**
+     * Выполняет запрос, занимая разрешение на работу с БД, если команда к ней обращается.
+     * Команды, которым нужна сессия, выполняются только по действительному токену.
+     *
+     * @param request запрос клиента
+     * @return ответ на запрос
+     */
+    private Response execute(Request request) {
+        Command command = getCommand(request.getCommand().getName());
+        if (command != null && command.requiresSession() && !sessionManager.authorize(request)) {
+            return new Response(LoginError.LOGIN_ERROR, "Сессия недействительна или истекла, войдите заново");
+        }
+        if (command == null || !command.usesDataBase()) {
+            return run(request);
+        }
+        dataBasePermits.acquireUninterruptibly();
+        try {
+            return run(request);
+        } finally {
+            dataBasePermits.release();
+        }
+    }
+
+    public Command getCommand(String name) {
+        return commandManager.getCommands().get(name);
+    }
+
+    /**
+     * Останавливает исполнитель команд, дожидаясь завершения начатых команд.
+     *
+     * @throws InterruptedException если ожидание было прервано
+     */
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        authExecutor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        if (!authExecutor.awaitTermination(1, TimeUnit.SECONDS)) {
+            authExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Возвращает строку с показателями кеша результатов читающих команд.
+     *
+     * @return показатели кеша или сообщение о том, что он выключен
+     */
+    public String cacheStats() {
+        ResponseCache cache = commandManager.getResponseCache();
+        return cache == null ? "Кеш ответов выключен" : cache.toString();
+    }
+
+    /**
+     * Возвращает строку с показателями исполнителя входа и регистрации.
+     *
+     * @return занятые потоки, длина очереди и количество выполненных запросов
+     */
+    public String authStats() {
+        return "Вход и регистрация: выполняются " + authExecutor.getActiveCount() + " из "
+                + authExecutor.getMaximumPoolSize() + ", в очереди " + authExecutor.getQueue().size()
+                + ", выполнено " + authExecutor.getCompletedTaskCount();
+    }
+}
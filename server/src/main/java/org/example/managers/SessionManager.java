@@ -0,0 +1,136 @@
+package org.example.managers;
+
+import org.example.network.Request;
+import org.example.network.User;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Менеджер сессий пользователей.
+ * После входа пользователь получает непрозрачный случайный токен, а последующие запросы
+ * несут только его: проверка токена — поиск в таблице в памяти, без обращения к базе данных
+ * и без хеширования пароля. Сессия истекает, если ею не пользовались дольше заданного времени.
+ * Потокобезопасен.
+ */
+public class SessionManager {
+
+    /** Длина токена в байтах до кодирования */
+    private static final int TOKEN_BYTES = 24;
+
+    /**
+     * Сессия пользователя.
+     */
+    private static final class Session {
+        private final String login;
+        private volatile long expiresAt;
+
+        private Session(String login, long expiresAt) {
+            this.login = login;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /** Сессии по токенам */
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    /** Источник случайных токенов */
+    private final SecureRandom random = new SecureRandom();
+
+    /** Время жизни неиспользуемой сессии, нс */
+    private final long ttlNanos;
+
+    /** Время следующей очистки истёкших сессий, нс */
+    private volatile long nextPurge;
+
+    /**
+     * Конструктор менеджера сессий.
+     * @param ttlSeconds время жизни неиспользуемой сессии в секундах
+     */
+    public SessionManager(long ttlSeconds) {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(1, ttlSeconds));
+        this.nextPurge = System.nanoTime() + ttlNanos;
+    }
+
+    /**
+     * Открывает сессию пользователя, прошедшего проверку пароля.
+     * @param login логин пользователя
+     * @return токен сессии
+     */
+    public String open(String login) {
+        long now = System.nanoTime();
+        if (now - nextPurge >= 0) {
+            nextPurge = now + ttlNanos;
+            purgeExpired(now);
+        }
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        sessions.put(token, new Session(login, now + ttlNanos));
+        return token;
+    }
+
+    /**
+     * Возвращает логин пользователя по токену и продлевает сессию.
+     * @param token токен сессии
+     * @return логин или null, если сессии нет или она истекла
+     */
+    public String resolve(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - session.expiresAt >= 0) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.expiresAt = now + ttlNanos;
+        return session.login;
+    }
+
+    /**
+     * Проверяет токен запроса и подставляет в запрос пользователя сессии (без пароля).
+     * @param request запрос клиента
+     * @return true, если сессия действительна
+     */
+    public boolean authorize(Request request) {
+        String login = resolve(request.getToken());
+        if (login == null) {
+            return false;
+        }
+        request.setUser(new User(login, null));
+        return true;
+    }
+
+    /**
+     * Закрывает сессию.
+     * @param token токен сессии
+     */
+    public void close(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    /**
+     * Возвращает количество открытых сессий (включая ещё не удалённые истёкшие).
+     * @return количество сессий
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Удаляет истёкшие сессии.
+     */
+    private void purgeExpired(long now) {
+        sessions.values().removeIf(session -> now - session.expiresAt >= 0);
+    }
+}
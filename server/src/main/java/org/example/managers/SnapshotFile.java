@@ -0,0 +1,148 @@
+package org.example.managers;
+
+import org.example.mainClasses.MusicBand;
+import org.example.network.BinaryCodec;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Файл снимка коллекции для быстрого перезапуска сервера.
+ * Формат: заголовок (сигнатура, версия формата, ревизия БД, количество элементов,
+ * длина данных, контрольная сумма CRC32C данных и заголовка), затем элементы в порядке коллекции
+ * в том же двоичном виде, что и в {@link BinaryCodec#writeBand}.
+ * Файл записывается во временный и заменяет старый только целиком, а читается через отображение
+ * в память, без копирования в буфер.
+ */
+public class SnapshotFile {
+
+    /** Сигнатура файла: "LB7S" */
+    private static final int MAGIC = 0x4C423753;
+
+    /** Версия формата файла */
+    private static final int FORMAT = 1;
+
+    /** Длина заголовка в байтах */
+    private static final int HEADER_SIZE = 32;
+
+    /** Смещение контрольной суммы в заголовке (она покрывает заголовок до этого места) */
+    private static final int CHECKSUM_OFFSET = 28;
+
+    /** Путь к файлу снимка */
+    private final Path path;
+
+    /**
+     * Конструктор файла снимка.
+     * @param path путь к файлу
+     */
+    public SnapshotFile(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Проверяет, существует ли файл снимка.
+     * @return true, если файл есть
+     */
+    public boolean exists() {
+        return Files.isRegularFile(path);
+    }
+
+    /**
+     * Записывает снимок коллекции. Старый файл заменяется только после полной записи нового.
+     * @param snapshot снимок коллекции
+     * @param revision ревизия БД, изменения до которой включительно отражены в снимке
+     * @throws IOException если файл не удалось записать
+     */
+    public void write(CollectionSnapshot snapshot, long revision) throws IOException {
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        CRC32C checksum = new CRC32C();
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            // поток не закрывается: он закрыл бы канал до записи заголовка
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                    new CheckedOutputStream(Channels.newOutputStream(channel), checksum), 1 << 16));
+            for (MusicBand band : snapshot.getBands()) {
+                BinaryCodec.writeBand(out, band);
+            }
+            out.flush();
+            long length = channel.position() - HEADER_SIZE;
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(FORMAT).putLong(revision).putInt(snapshot.size()).putLong(length);
+            checksum.update(header.array(), 0, CHECKSUM_OFFSET);
+            header.putInt((int) checksum.getValue());
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Читает снимок коллекции, отображая файл в память, и передаёт элементы в обработчик по порядку.
+     * Контрольная сумма проверяется до передачи первого элемента.
+     * @param sink обработчик элементов
+     * @return ревизия БД, записанная в снимке
+     * @throws IOException если файл не удалось прочитать или он повреждён
+     */
+    public long read(Consumer<MusicBand> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new StreamCorruptedException("Файл снимка обрезан");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new StreamCorruptedException("Неизвестный формат файла снимка");
+            }
+            long revision = buffer.getLong();
+            int count = buffer.getInt();
+            long length = buffer.getLong();
+            int expected = buffer.getInt();
+            if (length != size - HEADER_SIZE) {
+                throw new StreamCorruptedException("Файл снимка обрезан");
+            }
+
+            CRC32C checksum = new CRC32C();
+            checksum.update(buffer.duplicate().position(HEADER_SIZE));
+            checksum.update(buffer.duplicate().position(0).limit(CHECKSUM_OFFSET));
+            if ((int) checksum.getValue() != expected) {
+                throw new StreamCorruptedException("Контрольная сумма файла снимка не совпадает");
+            }
+
+            buffer.position(HEADER_SIZE);
+            try {
+                for (int i = 0; i < count; i++) {
+                    sink.accept(BinaryCodec.readBand(buffer));
+                }
+            } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException
+                     | DateTimeException e) {
+                throw new StreamCorruptedException("Файл снимка повреждён");
+            }
+            return revision;
+        }
+    }
+
+    /**
+     * Возвращает путь к файлу снимка.
+     * @return путь
+     */
+    public Path getPath() {
+        return path;
+    }
+}
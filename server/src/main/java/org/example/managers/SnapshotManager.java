@@ -0,0 +1,143 @@
+package org.example.managers;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Менеджер снимков коллекции для быстрого перезапуска сервера.
+ * При запуске восстанавливает коллекцию из {@link SnapshotFile} и догружает из базы данных только
+ * изменения после снимка; если снимка нет или он повреждён, загружает таблицу целиком.
+ * Во время работы периодически записывает снимок, а при остановке — окончательный.
+ * <p>
+ * Снимок помечается ревизией БД, до которой включительно все изменения точно отражены в коллекции.
+ * Изменение сначала фиксируется в БД и лишь затем применяется к коллекции, поэтому при периодической
+ * записи используется ревизия, прочитанная при предыдущей записи: изменения за последний период
+ * при восстановлении загружаются повторно, что ничего не портит. При остановке команды уже
+ * не выполняются, и снимок помечается текущей ревизией.
+ */
+public class SnapshotManager implements AutoCloseable {
+
+    private static final Logger logger = Logger.getLogger("logger");
+
+    /** Файл снимка */
+    private final SnapshotFile file;
+
+    /** Менеджер коллекции */
+    private final CollectionManager collectionManager;
+
+    /** Менеджер базы данных */
+    private final DataBaseManager dataBaseManager;
+
+    /** Поток периодической записи снимка или null, если она выключена */
+    private ScheduledExecutorService scheduler;
+
+    /** Ревизия БД, изменения до которой включительно точно отражены в коллекции */
+    private long safeRevision;
+
+    /** Версия коллекции в последнем записанном снимке */
+    private long savedVersion = -1;
+
+    /**
+     * Конструктор менеджера снимков.
+     * @param file файл снимка
+     * @param collectionManager менеджер коллекции
+     * @param dataBaseManager менеджер базы данных
+     */
+    public SnapshotManager(SnapshotFile file, CollectionManager collectionManager, DataBaseManager dataBaseManager) {
+        this.file = file;
+        this.collectionManager = collectionManager;
+        this.dataBaseManager = dataBaseManager;
+    }
+
+    /**
+     * Загружает коллекцию при запуске: из снимка с догрузкой изменений, а если это не удалось —
+     * из базы данных целиком.
+     * @param partitions количество частей для параллельной загрузки из базы данных
+     */
+    public synchronized void load(int partitions) {
+        try {
+            // читается до загрузки: пока сервер не запущен, таблицу никто не изменяет
+            safeRevision = dataBaseManager.getRevision();
+        } catch (SQLException e) {
+            logger.warning("Не удалось получить ревизию БД: " + e.getMessage());
+        }
+        if (file.exists() && collectionManager.restoreCollection(file)) {
+            logger.info("Коллекция восстановлена из снимка " + file.getPath());
+            return;
+        }
+        collectionManager.loadCollection(partitions);
+    }
+
+    /**
+     * Запускает периодическую запись снимка.
+     * @param periodSeconds период записи в секундах (0 — только при остановке)
+     */
+    public synchronized void start(int periodSeconds) {
+        if (periodSeconds <= 0 || scheduler != null) {
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::save, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Записывает снимок, если коллекция изменилась с прошлой записи.
+     * Снимок помечается ревизией, прочитанной при прошлой записи.
+     */
+    public synchronized void save() {
+        try {
+            long revision = dataBaseManager.getRevision();
+            write(safeRevision);
+            safeRevision = revision;
+        } catch (SQLException e) {
+            logger.warning("Не удалось получить ревизию БД: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Записывает снимок коллекции с указанной ревизией и удаляет ставшие ненужными записи об удалениях.
+     */
+    private void write(long revision) {
+        CollectionSnapshot snapshot = collectionManager.snapshot();
+        if (snapshot.getVersion() == savedVersion) {
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            file.write(snapshot, revision);
+            savedVersion = snapshot.getVersion();
+            logger.info("Снимок коллекции записан: " + snapshot.size() + " элементов за "
+                    + (System.nanoTime() - start) / 1_000_000 + " мс");
+            dataBaseManager.pruneDeleted(revision);
+        } catch (IOException e) {
+            logger.warning("Не удалось записать снимок коллекции: " + e.getMessage());
+        } catch (SQLException e) {
+            logger.warning("Не удалось очистить записи об удалениях: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Останавливает периодическую запись и записывает окончательный снимок.
+     * Вызывается после остановки выполнения команд, пока пул соединений ещё открыт.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        try {
+            write(dataBaseManager.getRevision());
+        } catch (SQLException e) {
+            logger.warning("Не удалось получить ревизию БД: " + e.getMessage());
+        }
+    }
+}
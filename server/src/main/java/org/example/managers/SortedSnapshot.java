@@ -0,0 +1,84 @@
+package org.example.managers;
+
+import org.example.mainClasses.MusicBand;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Неизменяемая копия отсортированных представлений {@link SortedViews} на определённую версию коллекции.
+ * Создаётся {@link CollectionManager} под блокировкой чтения копированием уже упорядоченных данных
+ * (без сортировки) и публикуется до следующего изменения, а строки по ней формируются без блокировок.
+ */
+public class SortedSnapshot {
+
+    /** Элементы по возрастанию ID */
+    private final List<MusicBand> byId;
+
+    /** Различные названия лейблов по убыванию (null в конце) */
+    private final String[] labelNames;
+
+    /** Количество элементов с каждым названием из {@link #labelNames} */
+    private final int[] labelCounts;
+
+    /** Суммарная длина названий лейблов в выводе */
+    private final long labelNamesLength;
+
+    /**
+     * Конструктор копии представлений.
+     *
+     * @param byId элементы по возрастанию ID; список передаётся копии и больше не должен изменяться
+     * @param labelNames различные названия лейблов в порядке вывода
+     * @param labelCounts количество элементов с каждым названием
+     * @param labelNamesLength суммарная длина названий в выводе
+     */
+    public SortedSnapshot(List<MusicBand> byId, String[] labelNames, int[] labelCounts, long labelNamesLength) {
+        this.byId = Collections.unmodifiableList(byId);
+        this.labelNames = labelNames;
+        this.labelCounts = labelCounts;
+        this.labelNamesLength = labelNamesLength;
+    }
+
+    /**
+     * Проверяет, пуста ли коллекция.
+     * @return true, если элементов нет
+     */
+    public boolean isEmpty() {
+        return byId.isEmpty();
+    }
+
+    /**
+     * Выводит элементы по возрастанию ID, по одному на строку.
+     * @return строковое представление элементов
+     */
+    public String formatById() {
+        StringBuilder result = new StringBuilder();
+        for (MusicBand band : byId) {
+            if (result.length() > 0) {
+                result.append('\n');
+            }
+            result.append(band);
+        }
+        return result.toString();
+    }
+
+    /**
+     * Выводит названия лейблов всех элементов по убыванию (null в конце), по одному на строку.
+     * @return строка с названиями лейблов
+     */
+    public String formatLabelNames() {
+        StringBuilder result = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8,
+                labelNamesLength + byId.size()));
+        boolean first = true;
+        for (int i = 0; i < labelNames.length; i++) {
+            for (int j = 0; j < labelCounts[i]; j++) {
+                if (!first) {
+                    result.append('\n');
+                }
+                result.append(labelNames[i]);
+                first = false;
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.managers;
+
+import org.example.mainClasses.MusicBand;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Отсортированные представления коллекции: элементы по ID и названия лейблов.
+ * Обновляются при каждом изменении за O(log n), поэтому команды вывода
+ * проходят по уже упорядоченным данным за O(n) без сортировки
+ * (через копию {@link SortedSnapshot}, которая выводится без блокировки коллекции).
+ * Не потокобезопасны: обновляются {@link BandStorage} под блокировкой {@link CollectionManager}.
+ */
+public class SortedViews {
+
+    /** Порядок названий лейблов для print_field_ascending_label: по убыванию, null в конце */
+    private static final Comparator<String> LABEL_NAME_ORDER = Comparator.nullsLast(Comparator.reverseOrder());
+
+    /** Элементы по возрастанию ID */
+    private final TreeMap<Long, MusicBand> byId = new TreeMap<>();
+
+    /** Названия лейблов с количеством элементов, у которых лейбл так называется */
+    private final TreeMap<String, Integer> labelNames = new TreeMap<>(LABEL_NAME_ORDER);
+
+    /** Суммарная длина названий лейблов (для выделения буфера нужного размера) */
+    private long labelNamesLength;
+
+    /**
+     * Добавляет элемент в представления.
+     * @param band элемент
+     */
+    public void add(MusicBand band) {
+        byId.put(band.getId(), band);
+        String name = band.getLabelName();
+        labelNames.merge(name, 1, Integer::sum);
+        labelNamesLength += nameLength(name);
+    }
+
+    /**
+     * Удаляет элемент из представлений.
+     * @param band элемент
+     */
+    public void remove(MusicBand band) {
+        byId.remove(band.getId());
+        String name = band.getLabelName();
+        labelNames.computeIfPresent(name, (key, count) -> count == 1 ? null : count - 1);
+        labelNamesLength -= nameLength(name);
+    }
+
+    /**
+     * Удаляет все элементы.
+     */
+    public void clear() {
+        byId.clear();
+        labelNames.clear();
+        labelNamesLength = 0;
+    }
+
+    /**
+     * Копирует представления в неизменяемый вид для вывода без блокировки.
+     * Данные уже упорядочены, поэтому копирование идёт за O(n) без сортировки.
+     * @return копия представлений
+     */
+    public SortedSnapshot snapshot() {
+        String[] names = new String[labelNames.size()];
+        int[] counts = new int[names.length];
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : labelNames.entrySet()) {
+            names[i] = entry.getKey();
+            counts[i++] = entry.getValue();
+        }
+        return new SortedSnapshot(new ArrayList<>(byId.values()), names, counts, labelNamesLength);
+    }
+
+    /**
+     * Длина названия в выводе (null выводится как "null").
+     */
+    private static int nameLength(String name) {
+        return name == null ? 4 : name.length();
+    }
+}
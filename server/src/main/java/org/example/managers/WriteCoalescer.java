@@ -0,0 +1,242 @@
+package org.example.managers;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Групповая фиксация изменений в базе данных.
+ * Запросы на изменение, пришедшие одновременно из разных потоков, выполняются одной транзакцией
+ * с одной фиксацией, после чего каждый поток получает свой результат.
+ * Если других изменений нет, запрос выполняется сразу, без ожидания: первый пришедший поток
+ * становится ведущим и выполняет всё, что накопилось, остальные ждут его завершения,
+ * а запросы, пришедшие во время выполнения, забирает следующий ведущий.
+ * Если в транзакции происходит ошибка, она откатывается, и изменения выполняются по одному,
+ * чтобы ошибка одного запроса не повлияла на остальные.
+ */
+public class WriteCoalescer {
+
+    /**
+     * Изменение, выполняемое на выданном соединении.
+     *
+     * @param <T> тип результата
+     */
+    @FunctionalInterface
+    public interface Write<T> {
+        /**
+         * Выполняет изменение.
+         *
+         * @param connection соединение (транзакцией управляет {@link WriteCoalescer})
+         * @return результат изменения
+         * @throws SQLException если изменение не удалось
+         */
+        T apply(PooledConnection connection) throws SQLException;
+    }
+
+    /**
+     * Ожидающее изменение и его результат.
+     */
+    private static final class Pending<T> {
+        private final Write<T> write;
+        private T result;
+        private SQLException error;
+        private boolean done;
+
+        private Pending(Write<T> write) {
+            this.write = write;
+        }
+
+        private void run(PooledConnection connection) throws SQLException {
+            try {
+                result = write.apply(connection);
+            } catch (RuntimeException e) {
+                // ошибка одного изменения не должна оставить остальные без результата
+                throw new SQLException("Ошибка при выполнении изменения", e);
+            }
+        }
+
+        private T get() throws SQLException {
+            if (error != null) {
+                throw error;
+            }
+            return result;
+        }
+    }
+
+    /** Пул соединений */
+    private final ConnectionPool pool;
+
+    /** Максимальное количество изменений в одной транзакции */
+    private final int maxBatchSize;
+
+    /** Время, в течение которого ведущий под нагрузкой добирает изменения, нс */
+    private final long windowNanos;
+
+    /** Блокировка очереди (не монитор, чтобы не закреплять виртуальные потоки) */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Сигнал о завершении очередной транзакции */
+    private final Condition finished = lock.newCondition();
+
+    /** Изменения, ожидающие ведущего */
+    private final ArrayDeque<Pending<?>> queue = new ArrayDeque<>();
+
+    /** Ведущий выполняет транзакцию */
+    private boolean leaderActive;
+
+    /** Количество выполненных транзакций */
+    private final AtomicLong batches = new AtomicLong();
+
+    /** Количество выполненных изменений */
+    private final AtomicLong writes = new AtomicLong();
+
+    /**
+     * Конструктор групповой фиксации.
+     *
+     * @param pool пул соединений
+     * @param maxBatchSize максимальное количество изменений в одной транзакции
+     * @param windowMicros время, в течение которого под нагрузкой добираются изменения, мкс (0 — не ждать)
+     */
+    public WriteCoalescer(ConnectionPool pool, int maxBatchSize, long windowMicros) {
+        this.pool = pool;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(Math.max(0, windowMicros));
+    }
+
+    /**
+     * Выполняет изменение, возможно, в одной транзакции с изменениями других потоков.
+     * Возвращает управление после фиксации транзакции.
+     *
+     * @param write изменение
+     * @param <T> тип результата
+     * @return результат изменения
+     * @throws SQLException если изменение не удалось
+     */
+    public <T> T execute(Write<T> write) throws SQLException {
+        Pending<T> pending = new Pending<>(write);
+        List<Pending<?>> batch;
+        lock.lock();
+        try {
+            queue.add(pending);
+            while (!pending.done && leaderActive) {
+                finished.awaitUninterruptibly();
+            }
+            if (pending.done) {
+                return pending.get();
+            }
+            leaderActive = true;
+            // своё изменение ведущий выполняет обязательно, остальные — в порядке поступления
+            queue.remove(pending);
+            batch = new ArrayList<>();
+            batch.add(pending);
+            batch.addAll(drain(maxBatchSize - 1));
+            // очередь была не пуста — есть нагрузка, имеет смысл немного подождать остальных
+            long remaining = batch.size() > 1 ? windowNanos : 0;
+            while (remaining > 0 && batch.size() < maxBatchSize) {
+                try {
+                    remaining = finished.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+                batch.addAll(drain(maxBatchSize - batch.size()));
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            run(batch);
+        } finally {
+            lock.lock();
+            try {
+                for (Pending<?> done : batch) {
+                    done.done = true;
+                }
+                leaderActive = false;
+                finished.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return pending.get();
+    }
+
+    /**
+     * Забирает из очереди не больше указанного количества изменений.
+     */
+    private List<Pending<?>> drain(int limit) {
+        List<Pending<?>> batch = new ArrayList<>(Math.min(limit, queue.size()));
+        while (batch.size() < limit && !queue.isEmpty()) {
+            batch.add(queue.poll());
+        }
+        return batch;
+    }
+
+    /**
+     * Выполняет изменения: одно — без явной транзакции, несколько — одной транзакцией,
+     * а при ошибке в ней — по одному.
+     */
+    private void run(List<Pending<?>> batch) {
+        try (PooledConnection pooled = pool.acquire()) {
+            if (batch.size() == 1) {
+                runEach(pooled, batch);
+            } else {
+                Connection connection = pooled.getConnection();
+                connection.setAutoCommit(false);
+                try {
+                    for (Pending<?> pending : batch) {
+                        pending.run(pooled);
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    connection.setAutoCommit(true);
+                    runEach(pooled, batch);
+                } finally {
+                    connection.setAutoCommit(true);
+                }
+            }
+            batches.incrementAndGet();
+            writes.addAndGet(batch.size());
+        } catch (SQLException e) {
+            for (Pending<?> pending : batch) {
+                if (pending.error == null) {
+                    pending.error = e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Выполняет изменения по одному в режиме автофиксации, сохраняя ошибку каждого.
+     */
+    private void runEach(PooledConnection pooled, List<Pending<?>> batch) {
+        for (Pending<?> pending : batch) {
+            try {
+                pending.error = null;
+                pending.run(pooled);
+            } catch (SQLException e) {
+                pending.error = e;
+            }
+        }
+    }
+
+    /**
+     * Возвращает строку с показателями групповой фиксации.
+     * @return количество транзакций, изменений и среднее число изменений в транзакции
+     */
+    @Override
+    public String toString() {
+        long batchCount = batches.get();
+        long writeCount = writes.get();
+        return "Групповая фиксация: транзакций " + batchCount + ", изменений " + writeCount
+                + ", в среднем " + (batchCount == 0 ? 0 : String.format("%.2f", (double) writeCount / batchCount));
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.network;
+
+import org.example.commands.Command;
+import org.example.mainClasses.Coordinates;
+import org.example.mainClasses.Label;
+import org.example.mainClasses.MusicBand;
+import org.example.mainClasses.MusicGenre;
+
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Компактный двоичный формат запросов и ответов постоянного соединения.
+ * Вместо сериализации Java команда передаётся числовым кодом, а поля пользователя,
+ * аргументов и музыкальной группы записываются вручную без описаний классов.
+ * Должен совпадать с одноимённым классом клиента.
+ */
+public final class BinaryCodec {
+
+    /** Названия команд; код команды — индекс в массиве (новые команды добавляются только в конец) */
+    private static final String[] COMMANDS = {
+            "add", "clear", "execute_script", "group_counting_by_label", "help", "info",
+            "print_descending", "print_field_ascending_label", "remove_at", "remove_by_id",
+            "remove_first", "show", "shuffle", "update", "login", "register", "sync"
+    };
+
+    /** Коды команд по названиям */
+    private static final Map<String, Byte> OPCODES = new HashMap<>();
+
+    static {
+        for (int i = 0; i < COMMANDS.length; i++) {
+            OPCODES.put(COMMANDS[i], (byte) i);
+        }
+    }
+
+    /** Способы входа в запросе: логин и пароль или токен сессии */
+    private static final byte AUTH_CREDENTIALS = 0;
+    private static final byte AUTH_TOKEN = 1;
+
+    /** Типы аргумента запроса */
+    private static final byte ARGS_NONE = 0;
+    private static final byte ARGS_LONG = 1;
+    private static final byte ARGS_INT = 2;
+    private static final byte ARGS_STRING = 3;
+
+    private BinaryCodec() {
+    }
+
+    /**
+     * Восстанавливает запрос из двоичного представления.
+     *
+     * @param data     массив байтов
+     * @param offset   начало данных
+     * @param length   длина данных
+     * @param commands поиск команды сервера по названию
+     * @return запрос
+     * @throws IOException если данные повреждены или команда неизвестна
+     */
+    public static Request decodeRequest(byte[] data, int offset, int length,
+                                        Function<String, Command> commands) throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(data, offset, length);
+        try {
+            int opcode = in.get();
+            Command command = opcode >= 0 && opcode < COMMANDS.length ? commands.apply(COMMANDS[opcode]) : null;
+            if (command == null) {
+                throw new StreamCorruptedException("Неизвестный код команды: " + opcode);
+            }
+            User user = null;
+            String token = null;
+            switch (in.get()) {
+                case AUTH_CREDENTIALS -> user = new User(readString(in), readString(in));
+                case AUTH_TOKEN -> token = readString(in);
+                default -> throw new StreamCorruptedException("Неизвестный способ входа");
+            }
+            Object args = switch (in.get()) {
+                case ARGS_NONE -> null;
+                case ARGS_LONG -> in.getLong();
+                case ARGS_INT -> in.getInt();
+                case ARGS_STRING -> readString(in);
+                default -> throw new StreamCorruptedException("Неизвестный тип аргумента");
+            };
+            MusicBand band = in.get() != 0 ? readBand(in) : null;
+            Request request = new Request(command, band, args, user);
+            request.setToken(token);
+            request.setKnownVersion(in.getLong());
+            return request;
+        } catch (BufferUnderflowException e) {
+            throw new StreamCorruptedException("Запрос обрезан");
+        } catch (IllegalArgumentException | DateTimeException | IndexOutOfBoundsException e) {
+            // недопустимые значения полей: закрывается только соединение этого клиента
+            throw new StreamCorruptedException("Запрос повреждён: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Записывает ответ в двоичном представлении.
+     *
+     * @param response ответ сервера
+     * @return двоичное представление ответа
+     * @throws IOException если ответ не удалось записать
+     */
+    public static byte[] encodeResponse(Response response) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(
+                response.getDelta() == null ? 64 : 64 + 128 * response.getDelta().getBands().size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeBoolean(response.getLoginError() != null);
+        writeString(out, response.getResult());
+        writeString(out, response.getToken());
+        out.writeLong(response.getVersion());
+        out.writeBoolean(response.isNotModified());
+        CollectionDelta delta = response.getDelta();
+        out.writeBoolean(delta != null);
+        if (delta != null) {
+            out.writeLong(delta.getFromVersion());
+            out.writeLong(delta.getVersion());
+            out.writeBoolean(delta.isFull());
+            List<MusicBand> bands = delta.getBands();
+            out.writeInt(bands.size());
+            for (MusicBand band : bands) {
+                writeBand(out, band);
+            }
+            out.writeInt(delta.getRemoved().size());
+            for (long id : delta.getRemoved()) {
+                out.writeLong(id);
+            }
+            out.writeLong(delta.getDate() == null ? Long.MIN_VALUE : delta.getDate().toEpochDay());
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Записывает поля музыкальной группы.
+     *
+     * @param out  поток вывода
+     * @param band музыкальная группа
+     * @throws IOException если произошла ошибка записи
+     */
+    public static void writeBand(DataOutputStream out, MusicBand band) throws IOException {
+        out.writeLong(band.getId());
+        writeString(out, band.getName());
+        out.writeFloat(band.getCoordinates().getX());
+        out.writeLong(band.getCoordinates().getY());
+        LocalDateTime creationDate = band.getCreationDateTime();
+        out.writeLong(creationDate.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(creationDate.getNano());
+        out.writeInt(band.hasNumberOfParticipants() ? band.getNumberOfParticipants() : 0);
+        Date establishmentDate = band.getEstablishmentDate();
+        out.writeLong(establishmentDate == null ? Long.MIN_VALUE : establishmentDate.getTime());
+        out.writeByte(band.getGenre() == null ? -1 : band.getGenre().getCode());
+        writeString(out, band.getLabel().getName());
+        out.writeInt(band.getLabel().getBands());
+        out.writeLong(band.getLabel().getSales());
+        writeString(out, band.getUserLogin());
+    }
+
+    /**
+     * Читает поля музыкальной группы, записанные {@link #writeBand}.
+     *
+     * @param in буфер с данными
+     * @return музыкальная группа
+     * @throws IllegalArgumentException если код жанра неизвестен
+     * @throws DateTimeException если дата создания недопустима
+     */
+    public static MusicBand readBand(ByteBuffer in) {
+        long id = in.getLong();
+        String name = readString(in);
+        Coordinates coordinates = new Coordinates(in.getFloat(), in.getLong());
+        LocalDateTime creationDate = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        int participants = in.getInt();
+        long establishmentTime = in.getLong();
+        byte genre = in.get();
+        Label label = new Label(readString(in), in.getInt(), in.getLong());
+        MusicBand band = new MusicBand(name, coordinates, creationDate,
+                participants == 0 ? null : participants,
+                establishmentTime == Long.MIN_VALUE ? null : new Date(establishmentTime),
+                genre < 0 ? null : MusicGenre.fromCode(genre),
+                label);
+        band.setId(id);
+        band.setUserLogin(readString(in));
+        return band;
+    }
+
+    /**
+     * Записывает строку как длину в байтах UTF-8 и сами байты (-1 для null).
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Читает строку, записанную {@link #writeString}.
+     */
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (!in.hasArray()) {
+            // прямой или отображённый в память буфер (файл снимка коллекции)
+            byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+        String value = new String(in.array(), in.arrayOffset() + in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+}
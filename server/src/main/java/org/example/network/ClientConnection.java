@@ -0,0 +1,317 @@
+package org.example.network;
+
+import org.example.commands.Command;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.function.Function;
+
+/**
+ * Состояние клиентского соединения для событийного цикла сервера.
+ * Накапливает входящие байты до получения полного запроса и хранит очередь исходящих данных,
+ * которые отправляются по готовности сокета к записи.
+ * Режим соединения (однократный или постоянный) определяется по первым байтам от клиента,
+ * см. {@link Protocol}.
+ */
+public class ClientConnection {
+
+    /**
+     * Наибольший объём накопленных байтов: кадр наибольшего размера вместе с заголовком.
+     * Запрос однократного режима, не уместившийся в этот объём, отклоняется.
+     */
+    private static final int MAX_BUFFERED = Protocol.FRAME_HEADER_SIZE + Protocol.MAX_FRAME_SIZE;
+
+    /**
+     * Задержка повторного разбора запроса однократного режима, мс.
+     * Длина такого запроса заранее неизвестна, поэтому разбор повторяется, только когда объём данных
+     * удвоился с прошлой попытки или с неё прошло это время: так суммарная работа остаётся линейной.
+     */
+    public static final long LEGACY_RETRY_MILLIS = 50;
+
+    /** Канал сокета клиента */
+    private final SocketChannel channel;
+
+    /** Накопленные, но ещё не разобранные байты (буфер в режиме записи) */
+    private ByteBuffer incoming = ByteBuffer.allocate(8192);
+
+    /** Буфер, в который сериализуются ответы однократного режима */
+    private final ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+
+    /** Поток сериализации ответов однократного режима */
+    private final ObjectOutputStream writer;
+
+    /** Очередь данных, ожидающих отправки клиенту */
+    private final Queue<ByteBuffer> outgoing = new ArrayDeque<>();
+
+    /** Режим соединения определён */
+    private boolean negotiated;
+
+    /** Соединение постоянное (обмен кадрами) */
+    private boolean persistent;
+
+    /** Кадры записываются двоичным форматом {@link BinaryCodec} */
+    private boolean binary;
+
+    /** Поиск команды сервера по названию (для двоичного формата) */
+    private final Function<String, Command> commands;
+
+    /** Запрос однократного режима уже получен, дальнейшее чтение не требуется */
+    private boolean requestReceived;
+
+    /** Объём данных при последней неудачной попытке разбора запроса однократного режима */
+    private int parsedSize;
+
+    /** Время, после которого разрешена повторная попытка разбора, нс */
+    private long retryAt;
+
+    /** Нужно ли закрыть соединение после отправки всех данных */
+    private boolean closeAfterWrite;
+
+    /**
+     * Конструктор соединения.
+     * Сразу ставит в очередь заголовок потока сериализации: клиент однократного режима ждёт его
+     * до отправки запроса, клиент постоянного режима пропускает его.
+     *
+     * @param channel канал сокета клиента
+     * @param commands поиск команды сервера по названию
+     * @throws IOException если не удалось подготовить поток сериализации
+     */
+    public ClientConnection(SocketChannel channel, Function<String, Command> commands) throws IOException {
+        this.channel = channel;
+        this.commands = commands;
+        this.writer = new ObjectOutputStream(serialized);
+        this.writer.flush();
+        drainSerialized();
+    }
+
+    /**
+     * Возвращает канал сокета клиента.
+     * @return канал сокета
+     */
+    public SocketChannel getChannel() {
+        return channel;
+    }
+
+    /**
+     * Проверяет, является ли соединение постоянным.
+     * @return true, если клиент работает в режиме кадров
+     */
+    public boolean isPersistent() {
+        return persistent;
+    }
+
+    /**
+     * Проверяет, ожидаются ли от клиента новые данные.
+     * @return false, если единственный запрос однократного режима уже получен
+     */
+    public boolean isReading() {
+        return persistent || !requestReceived;
+    }
+
+    /**
+     * Проверяет, отложен ли разбор полученных данных однократного режима.
+     * Такое соединение нужно опросить повторно через {@link #LEGACY_RETRY_MILLIS},
+     * даже если новых данных не придёт.
+     * @return true, если данные получены после последней попытки разбора
+     */
+    public boolean isParseDeferred() {
+        return negotiated && !persistent && !requestReceived && incoming.position() > parsedSize;
+    }
+
+    /**
+     * Проверяет, есть ли данные, ожидающие отправки.
+     * @return true, если очередь отправки не пуста
+     */
+    public synchronized boolean hasPendingOutput() {
+        return !outgoing.isEmpty();
+    }
+
+    /**
+     * Читает доступные байты из сокета.
+     * Буфер растёт не больше чем до {@link #MAX_BUFFERED}; когда он заполнен, чтение откладывается
+     * до разбора накопленных запросов (непрочитанные байты остаются в сокете).
+     *
+     * @return false, если клиент закрыл соединение
+     * @throws IOException если произошла ошибка чтения
+     */
+    public boolean read() throws IOException {
+        int read;
+        do {
+            if (!incoming.hasRemaining()) {
+                if (incoming.capacity() >= MAX_BUFFERED) {
+                    return true;
+                }
+                ByteBuffer larger = ByteBuffer.allocate(Math.min(incoming.capacity() * 2, MAX_BUFFERED));
+                incoming.flip();
+                larger.put(incoming);
+                incoming = larger;
+            }
+            read = channel.read(incoming);
+        } while (read > 0);
+        return read != -1;
+    }
+
+    /**
+     * Пытается разобрать очередной запрос из накопленных байтов.
+     *
+     * @return запрос или null, если данные ещё не получены полностью
+     * @throws IOException если данные повреждены или протокол не распознан
+     * @throws ClassNotFoundException если класс объекта не найден
+     */
+    public Request pollRequest() throws IOException, ClassNotFoundException {
+        if (!negotiated && !negotiate()) {
+            return null;
+        }
+        return persistent ? pollFrame() : pollSerialized();
+    }
+
+    /**
+     * Определяет режим соединения по первым четырём байтам.
+     *
+     * @return true, если режим определён
+     * @throws IOException если клиент прислал неизвестный заголовок
+     */
+    private boolean negotiate() throws IOException {
+        if (incoming.position() < Integer.BYTES) {
+            return false;
+        }
+        int magic = incoming.getInt(0);
+        if (magic == Protocol.PERSISTENT_MAGIC || magic == Protocol.BINARY_MAGIC) {
+            persistent = true;
+            binary = magic == Protocol.BINARY_MAGIC;
+            consume(Integer.BYTES);
+        } else if (magic != Protocol.LEGACY_MAGIC) {
+            throw new StreamCorruptedException("Неизвестный протокол клиента");
+        }
+        negotiated = true;
+        return true;
+    }
+
+    /**
+     * Разбирает запрос однократного режима (поток сериализации целиком).
+     * Попытка откладывается, пока данных не стало вдвое больше, чем при прошлой попытке,
+     * или не прошло {@link #LEGACY_RETRY_MILLIS}.
+     */
+    private Request pollSerialized() throws IOException, ClassNotFoundException {
+        int size = incoming.position();
+        boolean full = size >= MAX_BUFFERED;
+        if (!full && (size == parsedSize || size < 2L * parsedSize && System.nanoTime() - retryAt < 0)) {
+            return null;
+        }
+        try {
+            Request request = (Request) Protocol.deserialize(incoming.array(), 0, size);
+            incoming.clear();
+            requestReceived = true;
+            return request;
+        } catch (EOFException e) {
+            if (full) {
+                throw new StreamCorruptedException("Запрос превышает " + MAX_BUFFERED + " байт");
+            }
+            parsedSize = size;
+            retryAt = System.nanoTime() + LEGACY_RETRY_MILLIS * 1_000_000;
+            return null;
+        }
+    }
+
+    /**
+     * Разбирает очередной кадр постоянного режима.
+     */
+    private Request pollFrame() throws IOException, ClassNotFoundException {
+        if (incoming.position() < Protocol.FRAME_HEADER_SIZE) {
+            return null;
+        }
+        int length = incoming.getInt(0);
+        if (length < 0 || length > Protocol.MAX_FRAME_SIZE) {
+            throw new StreamCorruptedException("Недопустимый размер кадра: " + length);
+        }
+        if (incoming.position() < Protocol.FRAME_HEADER_SIZE + length) {
+            return null;
+        }
+        long requestId = incoming.getLong(Integer.BYTES);
+        Request request = binary
+                ? BinaryCodec.decodeRequest(incoming.array(), Protocol.FRAME_HEADER_SIZE, length, commands)
+                : (Request) Protocol.deserialize(incoming.array(), Protocol.FRAME_HEADER_SIZE, length);
+        request.setRequestId(requestId);
+        consume(Protocol.FRAME_HEADER_SIZE + length);
+        return request;
+    }
+
+    /**
+     * Удаляет из буфера разобранные байты.
+     * @param count количество байтов
+     */
+    private void consume(int count) {
+        incoming.flip();
+        incoming.position(count);
+        incoming.compact();
+    }
+
+    /**
+     * Сериализует ответ и ставит его в очередь на отправку.
+     * В однократном режиме после отправки ответа соединение будет закрыто,
+     * в постоянном ответ помечается идентификатором запроса. Ответ, не умещающийся в кадр
+     * ({@link Protocol#MAX_FRAME_SIZE}), заменяется сообщением об ошибке: клиент отклонил бы такой кадр
+     * и разорвал соединение.
+     *
+     * @param requestId идентификатор запроса, на который дан ответ
+     * @param response ответ сервера
+     * @throws IOException если не удалось сериализовать ответ
+     */
+    public synchronized void enqueue(long requestId, Response response) throws IOException {
+        if (persistent) {
+            byte[] payload = binary ? BinaryCodec.encodeResponse(response) : Protocol.serialize(response);
+            if (payload.length > Protocol.MAX_FRAME_SIZE) {
+                Response tooLarge = new Response("Ответ слишком велик для передачи (" + payload.length
+                        + " байт при допустимых " + Protocol.MAX_FRAME_SIZE + ")");
+                payload = binary ? BinaryCodec.encodeResponse(tooLarge) : Protocol.serialize(tooLarge);
+            }
+            ByteBuffer frame = ByteBuffer.allocate(Protocol.FRAME_HEADER_SIZE + payload.length);
+            frame.putInt(payload.length).putLong(requestId).put(payload).flip();
+            outgoing.add(frame);
+        } else {
+            writer.writeObject(response);
+            writer.flush();
+            drainSerialized();
+            closeAfterWrite = true;
+        }
+    }
+
+    /**
+     * Отправляет данные из очереди, пока сокет их принимает.
+     *
+     * @return true, если очередь полностью отправлена
+     * @throws IOException если произошла ошибка записи
+     */
+    public synchronized boolean write() throws IOException {
+        while (!outgoing.isEmpty()) {
+            ByteBuffer buffer = outgoing.peek();
+            channel.write(buffer);
+            if (buffer.hasRemaining()) {
+                return false;
+            }
+            outgoing.poll();
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, нужно ли закрыть соединение после отправки данных.
+     * @return true, если соединение нужно закрыть
+     */
+    public synchronized boolean isCloseAfterWrite() {
+        return closeAfterWrite;
+    }
+
+    /**
+     * Переносит сериализованные байты в очередь отправки.
+     */
+    private void drainSerialized() {
+        if (serialized.size() > 0) {
+            outgoing.add(ByteBuffer.wrap(serialized.toByteArray()));
+            serialized.reset();
+        }
+    }
+}
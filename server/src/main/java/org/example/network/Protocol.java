@@ -0,0 +1,66 @@
+package org.example.network;
+
+import java.io.*;
+
+/**
+ * Константы и вспомогательные методы сетевого протокола.
+ * Поддерживаются два режима соединения:
+ * - однократный: клиент открывает поток сериализации, отправляет один запрос и получает один ответ;
+ * - постоянный: клиент отправляет {@link #PERSISTENT_MAGIC}, после чего обмен идёт кадрами
+ *   вида [длина:int][идентификатор запроса:long][данные], ответы могут приходить в любом порядке.
+ * Вместо {@link #PERSISTENT_MAGIC} клиент может отправить {@link #BINARY_MAGIC}: тогда данные кадров
+ * записываются компактным форматом {@link BinaryCodec}, а не сериализацией Java.
+ * Сервер начинает любое соединение с заголовка потока сериализации ({@link #LEGACY_MAGIC}),
+ * клиент постоянного режима его пропускает.
+ */
+public final class Protocol {
+
+    /** Заголовок потока сериализации Java, с которого начинается однократный режим */
+    public static final int LEGACY_MAGIC = 0xACED0005;
+
+    /** Признак постоянного соединения с кадрами ("LB7P") */
+    public static final int PERSISTENT_MAGIC = 0x4C423750;
+
+    /** Признак постоянного соединения с кадрами в двоичном формате ("LB7B") */
+    public static final int BINARY_MAGIC = 0x4C423742;
+
+    /** Размер заголовка кадра: длина данных и идентификатор запроса */
+    public static final int FRAME_HEADER_SIZE = Integer.BYTES + Long.BYTES;
+
+    /** Максимальный размер данных одного кадра */
+    public static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+    private Protocol() {
+    }
+
+    /**
+     * Сериализует объект в массив байтов.
+     *
+     * @param object объект для сериализации
+     * @return сериализованное представление
+     * @throws IOException если объект не удалось сериализовать
+     */
+    public static byte[] serialize(Object object) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream writer = new ObjectOutputStream(bytes)) {
+            writer.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Восстанавливает объект из массива байтов.
+     *
+     * @param data    массив байтов
+     * @param offset  начало данных
+     * @param length  длина данных
+     * @return десериализованный объект
+     * @throws IOException если данные повреждены
+     * @throws ClassNotFoundException если класс объекта не найден
+     */
+    public static Object deserialize(byte[] data, int offset, int length) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream reader = new ObjectInputStream(new ByteArrayInputStream(data, offset, length))) {
+            return reader.readObject();
+        }
+    }
+}
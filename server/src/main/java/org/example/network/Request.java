@@ -35,6 +35,15 @@ public class Request implements Serializable {
     /** Строка регистрации (для специальных случаев) */
     private String register;
 
+    /** Идентификатор запроса в постоянном соединении (для сопоставления с ответом) */
+    private long requestId;
+
+    /** Токен сессии; у запросов с токеном пользователь подставляется сервером после проверки */
+    private String token;
+
+    /** Версия коллекции, на которой получен сохранённый клиентом результат команды, или -1 */
+    private long knownVersion = -1;
+
     /**
      * Конструктор для запросов регистрации.
      * @param register строка регистрации
@@ -142,4 +151,60 @@ public class Request implements Serializable {
     public User getUser() {
         return this.user;
     }
+
+    /**
+     * Устанавливает пользователя, от имени которого выполняется запрос.
+     * @param user пользователь
+     */
+    public void setUser(User user) {
+        this.user = user;
+    }
+
+    /**
+     * Возвращает токен сессии.
+     * @return токен или null, если запрос несёт логин и пароль
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Устанавливает токен сессии.
+     * @param token токен сессии
+     */
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Возвращает версию коллекции, на которой получен сохранённый клиентом результат команды.
+     * @return версия коллекции или -1, если у клиента нет сохранённого результата
+     */
+    public long getKnownVersion() {
+        return knownVersion;
+    }
+
+    /**
+     * Устанавливает версию коллекции, на которой получен сохранённый клиентом результат команды.
+     * @param knownVersion версия коллекции или -1
+     */
+    public void setKnownVersion(long knownVersion) {
+        this.knownVersion = knownVersion;
+    }
+
+    /**
+     * Возвращает идентификатор запроса.
+     * @return идентификатор запроса или 0, если запрос отправлен вне постоянного соединения
+     */
+    public long getRequestId() {
+        return requestId;
+    }
+
+    /**
+     * Устанавливает идентификатор запроса.
+     * @param requestId идентификатор запроса
+     */
+    public void setRequestId(long requestId) {
+        this.requestId = requestId;
+    }
 }
\ No newline at end of file
@@ -28,6 +28,26 @@ public class Response implements Serializable {
      */
     private LoginError loginError;
 
+    /**
+     * Токен сессии, выданный при входе или регистрации.
+     */
+    private String token;
+
+    /**
+     * Версия коллекции, на которой получен результат читающей команды, или -1.
+     */
+    private long version = -1;
+
+    /**
+     * Признак того, что результат не изменился с версии, известной клиенту, и не передаётся.
+     */
+    private boolean notModified;
+
+    /**
+     * Изменения коллекции для команды sync или null.
+     */
+    private CollectionDelta delta;
+
     /**
      * Конструктор ответа с текстовым сообщением.
      * @param string текстовое сообщение для клиента
@@ -70,6 +90,82 @@ public class Response implements Serializable {
         return loginError;
     }
 
+    /**
+     * Возвращает токен сессии.
+     * @return токен или null, если ответ не открывает сессию
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Устанавливает токен сессии.
+     * @param token токен сессии
+     */
+    public void setToken(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Создаёт ответ без результата: коллекция не изменилась с версии, известной клиенту.
+     * @param version текущая версия коллекции
+     * @return ответ "не изменилось"
+     */
+    public static Response notModified(long version) {
+        Response response = new Response("");
+        response.version = version;
+        response.notModified = true;
+        return response;
+    }
+
+    /**
+     * Возвращает версию коллекции, на которой получен результат.
+     * @return версия коллекции или -1, если результат от неё не зависит или не кешируется
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Устанавливает версию коллекции, на которой получен результат.
+     * @param version версия коллекции
+     */
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    /**
+     * Проверяет, что результат не изменился с версии, известной клиенту.
+     * @return true, если результат не передаётся
+     */
+    public boolean isNotModified() {
+        return notModified;
+    }
+
+    /**
+     * Устанавливает признак неизменившегося результата.
+     * @param notModified true, если результат не передаётся
+     */
+    public void setNotModified(boolean notModified) {
+        this.notModified = notModified;
+    }
+
+    /**
+     * Возвращает изменения коллекции.
+     * @return изменения коллекции или null, если ответ их не содержит
+     */
+    public CollectionDelta getDelta() {
+        return delta;
+    }
+
+    /**
+     * Устанавливает изменения коллекции.
+     * @param delta изменения коллекции
+     */
+    public void setDelta(CollectionDelta delta) {
+        this.delta = delta;
+    }
+
     /**
      * Конструктор по умолчанию.
      * Создает ответ с результатом "Успешно".
@@ -3,17 +3,28 @@ package org.example.network;
 import org.example.managers.CollectionManager;
 import org.example.managers.DataBaseManager;
 import org.example.managers.RunManager;
+import org.example.managers.SnapshotManager;
 
 import java.io.*;
 import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
-import java.util.concurrent.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 /**
  * Класс сервера для обработки клиентских запросов.
- * Использует пулы потоков для эффективной обработки соединений.
+ * Принимает соединения, читает запросы и отправляет ответы в событийном цикле на основе {@link Selector},
+ * а выполнение команд передаёт {@link RunManager}.
  */
 public class Server {
 
@@ -22,13 +33,16 @@ public class Server {
     private final CollectionManager collectionManager;
     private final RunManager runManager;
     private final DataBaseManager dataBaseManager;
+    private final SnapshotManager snapshotManager;
 
     private ServerSocketChannel serverSocket;
-    private Request request;
-    private Response response;
+    private Selector selector;
 
-    private final ExecutorService connectionPool = Executors.newCachedThreadPool();
-    private final ExecutorService requestProcessingPool = Executors.newFixedThreadPool(3);
+    /** Соединения, ответы для которых готовы к отправке */
+    private final Queue<SelectionKey> pendingWrites = new ConcurrentLinkedQueue<>();
+
+    /** Соединения однократного режима, разбор запроса которых отложен (используется только циклом) */
+    private final Set<SelectionKey> deferredReads = new HashSet<>();
 
     private static final Logger logger = Logger.getLogger("logger");
 
@@ -43,12 +57,15 @@ public class Server {
      * @param port порт сервера
      * @param dataBaseManager менеджер работы с БД
      * @param collectionManager менеджер коллекции
+     * @param snapshotManager менеджер снимков коллекции (null — без снимков)
      */
     public Server(String host, RunManager runManager, int port,
-                  DataBaseManager dataBaseManager, CollectionManager collectionManager) {
+                  DataBaseManager dataBaseManager, CollectionManager collectionManager,
+                  SnapshotManager snapshotManager) {
         this.host = host;
         this.port = port;
         this.dataBaseManager = dataBaseManager;
+        this.snapshotManager = snapshotManager;
         this.collectionManager = collectionManager;
         this.runManager = runManager;
     }
@@ -58,17 +75,21 @@ public class Server {
      */
     public void run() {
         openServerSocket();
+        startConsoleThread();
         logger.info("Сервер запущен на порту " + port);
 
         try {
             while (true) {
-                processConsoleCommands();
-
+                selector.select(deferredReads.isEmpty() ? 0 : ClientConnection.LEGACY_RETRY_MILLIS);
+                registerPendingWrites();
 
-                SocketChannel clientSocket = serverSocket.accept();
-                if (clientSocket != null) {
-                    processClientRequest(clientSocket);
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    handleKey(key);
                 }
+                retryDeferredReads();
             }
         } catch (IOException e) {
             logger.severe("Критическая ошибка сервера: " + e.getMessage());
@@ -76,74 +97,245 @@ public class Server {
         }
     }
 
+    /**
+     * Запускает поток, обрабатывающий команды из консоли сервера.
+     */
+    private void startConsoleThread() {
+        Thread consoleThread = new Thread(this::processConsoleCommands, "console");
+        consoleThread.setDaemon(true);
+        consoleThread.start();
+    }
+
     /**
      * Обрабатывает команды из консоли сервера.
-     * @throws IOException если произошла ошибка ввода/вывода
+     * Выполняется в отдельном потоке и блокируется на чтении строки.
      */
-    private void processConsoleCommands() throws IOException {
-        if (consoleReader.ready()) {
-            String command = consoleReader.readLine();
-            if ("save".equals(command) || "s".equals(command)) {
-                collectionManager.loadCollection();
-                logger.info("Коллекция успешно сохранена!");
+    private void processConsoleCommands() {
+        try {
+            String command;
+            while ((command = consoleReader.readLine()) != null) {
+                if ("save".equals(command) || "s".equals(command)) {
+                    collectionManager.loadCollection();
+                    logger.info("Коллекция успешно сохранена!");
+                } else if ("pool".equals(command) && dataBaseManager != null) {
+                    logger.info(dataBaseManager.getPool().toString());
+                    logger.info(dataBaseManager.getWrites().toString());
+                } else if ("cache".equals(command)) {
+                    logger.info(runManager.cacheStats());
+                } else if ("auth".equals(command)) {
+                    logger.info(runManager.authStats());
+                    if (dataBaseManager != null) {
+                        logger.info(dataBaseManager.getPasswordManager().toString());
+                    }
+                } else if ("snapshot".equals(command) && snapshotManager != null) {
+                    snapshotManager.save();
+                }
             }
+        } catch (IOException e) {
+            logger.warning("Ошибка чтения консоли: " + e.getMessage());
         }
     }
 
     /**
-     * Обрабатывает запрос от клиента.
-     * @param clientSocket сокет клиента
+     * Обрабатывает событие готовности канала.
+     * @param key ключ канала
      */
-    private void processClientRequest(SocketChannel clientSocket) {
-        connectionPool.submit(() -> {
-            try (ObjectInputStream reader = new ObjectInputStream(clientSocket.socket().getInputStream());
-                 ObjectOutputStream writer = new ObjectOutputStream(clientSocket.socket().getOutputStream())) {
+    private void handleKey(SelectionKey key) {
+        try {
+            if (!key.isValid()) {
+                return;
+            }
+            if (key.isAcceptable()) {
+                acceptClient();
+                return;
+            }
+            if (key.isReadable()) {
+                readClient(key);
+            }
+            if (key.isValid() && key.isWritable()) {
+                writeClient(key);
+            }
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            logger.warning("Ошибка обработки запроса: " + e.getMessage());
+            dropClient(key);
+        } catch (RuntimeException e) {
+            // ошибка одного соединения не должна останавливать событийный цикл для остальных клиентов
+            logger.log(Level.WARNING, "Непредвиденная ошибка обработки запроса", e);
+            dropClient(key);
+        }
+    }
 
-                Request request = (Request) reader.readObject();
-                logger.info("Получен запрос от " + request.getUser().getLogin() +
-                        ": " + request.getCommand().getName());
+    /**
+     * Закрывает соединение клиента после ошибки; канал приёма соединений остаётся открытым.
+     * @param key ключ канала
+     */
+    private void dropClient(SelectionKey key) {
+        if (key.channel() != serverSocket) {
+            closeClientSocket(key);
+        }
+    }
 
-                Future<Response> responseFuture = requestProcessingPool.submit(
-                        () -> runManager.run(request));
+    /**
+     * Принимает новое соединение и регистрирует его в селекторе.
+     * @throws IOException если произошла ошибка ввода/вывода
+     */
+    private void acceptClient() throws IOException {
+        SocketChannel clientSocket = serverSocket.accept();
+        if (clientSocket == null) {
+            return;
+        }
+        clientSocket.configureBlocking(false);
+        clientSocket.socket().setTcpNoDelay(true);
+        clientSocket.register(selector, SelectionKey.OP_READ | SelectionKey.OP_WRITE, new ClientConnection(clientSocket, runManager::getCommand));
+    }
 
+    /**
+     * Читает данные клиента и передаёт на выполнение все полностью полученные запросы.
+     * @param key ключ канала клиента
+     */
+    private void readClient(SelectionKey key) throws IOException, ClassNotFoundException {
+        ClientConnection connection = (ClientConnection) key.attachment();
+        if (!connection.read()) {
+            closeClientSocket(key);
+            return;
+        }
+        pollClient(key, connection);
+    }
 
-                Response response = responseFuture.get();
-                sendResponse(response, writer);
-                logger.info("Ответ отправлен " + request.getUser().getLogin() +
-                        ": " + response.getResult());
+    /**
+     * Передаёт на выполнение все полностью полученные запросы соединения.
+     * @param key ключ канала клиента
+     * @param connection соединение клиента
+     */
+    private void pollClient(SelectionKey key, ClientConnection connection) throws IOException, ClassNotFoundException {
+        Request request;
+        while (connection.isReading() && (request = connection.pollRequest()) != null) {
+            if (request.getCommand() == null) {
+                throw new StreamCorruptedException("Запрос без команды");
+            }
+            processClientRequest(key, request);
+        }
+        if (connection.isParseDeferred()) {
+            deferredReads.add(key);
+        } else {
+            deferredReads.remove(key);
+        }
+        updateInterest(key, connection);
+    }
 
-            } catch (IOException | ClassNotFoundException |
-                     InterruptedException | ExecutionException e) {
+    /**
+     * Повторяет отложенный разбор запросов однократного режима, для которых не пришло новых данных.
+     */
+    private void retryDeferredReads() {
+        for (SelectionKey key : new ArrayList<>(deferredReads)) {
+            try {
+                if (key.isValid()) {
+                    pollClient(key, (ClientConnection) key.attachment());
+                } else {
+                    deferredReads.remove(key);
+                }
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
                 logger.warning("Ошибка обработки запроса: " + e.getMessage());
-            } finally {
-                closeClientSocket(clientSocket);
+                dropClient(key);
+            }
+        }
+    }
+
+    /**
+     * Отправляет клиенту данные из очереди соединения.
+     * @param key ключ канала клиента
+     */
+    private void writeClient(SelectionKey key) throws IOException {
+        ClientConnection connection = (ClientConnection) key.attachment();
+        if (!connection.write()) {
+            return;
+        }
+        if (connection.isCloseAfterWrite()) {
+            closeClientSocket(key);
+        } else {
+            updateInterest(key, connection);
+        }
+    }
+
+    /**
+     * Выставляет интересующие события канала по состоянию соединения.
+     * @param key ключ канала клиента
+     * @param connection соединение клиента
+     */
+    private void updateInterest(SelectionKey key, ClientConnection connection) {
+        int ops = connection.isReading() ? SelectionKey.OP_READ : 0;
+        if (connection.hasPendingOutput()) {
+            ops |= SelectionKey.OP_WRITE;
+        }
+        key.interestOps(ops);
+    }
+
+    /**
+     * Включает ожидание записи для соединений, ответы которых готовы.
+     */
+    private void registerPendingWrites() {
+        SelectionKey key;
+        while ((key = pendingWrites.poll()) != null) {
+            try {
+                if (key.isValid()) {
+                    updateInterest(key, (ClientConnection) key.attachment());
+                }
+            } catch (CancelledKeyException e) {
+                // соединение закрыто, пока ответ выполнялся
             }
-        });
+        }
+    }
+
+    /**
+     * Передаёт запрос клиента на выполнение команд.
+     * По завершении ответ ставится в очередь соединения, а событийный цикл пробуждается.
+     * @param key ключ канала клиента
+     * @param request запрос клиента
+     */
+    private void processClientRequest(SelectionKey key, Request request) {
+        ClientConnection connection = (ClientConnection) key.attachment();
+        // у запросов с токеном пользователь известен только после проверки сессии
+        logger.info("Получен запрос от " + (request.getUser() != null ? request.getUser().getLogin() : "сессии") +
+                ": " + request.getCommand().getName());
+
+        runManager.submit(request)
+                .whenComplete((response, error) -> {
+                    if (error != null || response == null) {
+                        logger.warning("Ошибка выполнения команды: " + (error == null ? "нет ответа" : error.getMessage()));
+                        response = new Response("Ошибка выполнения команды");
+                    }
+                    sendResponse(key, connection, request.getRequestId(), response);
+                    logger.info("Ответ отправлен " + (request.getUser() != null ? request.getUser().getLogin() : "-") +
+                            ": " + response.getResult());
+                });
     }
 
     /**
      * Закрывает клиентский сокет.
-     * @param socket сокет для закрытия
+     * @param key ключ канала клиента
      */
-    private void closeClientSocket(SocketChannel socket) {
+    private void closeClientSocket(SelectionKey key) {
+        deferredReads.remove(key);
         try {
-            if (socket != null) {
-                socket.close();
-            }
+            key.cancel();
+            key.channel().close();
         } catch (IOException e) {
             logger.warning("Ошибка закрытия сокета: " + e.getMessage());
         }
     }
 
     /**
-     * Отправляет ответ клиенту.
+     * Ставит ответ в очередь отправки клиенту.
+     * @param key ключ канала клиента
+     * @param connection соединение клиента
+     * @param requestId идентификатор запроса
      * @param response ответ сервера
-     * @param writer поток вывода
      */
-    private synchronized void sendResponse(Response response, ObjectOutputStream writer) {
+    private void sendResponse(SelectionKey key, ClientConnection connection, long requestId, Response response) {
         try {
-            writer.writeObject(response);
-            writer.flush();
+            connection.enqueue(requestId, response);
+            pendingWrites.add(key);
+            selector.wakeup();
         } catch (IOException e) {
             logger.warning("Ошибка отправки ответа: " + e.getMessage());
         }
@@ -154,9 +346,11 @@ public class Server {
      */
     private void openServerSocket() {
         try {
+            selector = Selector.open();
             serverSocket = ServerSocketChannel.open();
             serverSocket.bind(new InetSocketAddress(host, port));
             serverSocket.configureBlocking(false);
+            serverSocket.register(selector, SelectionKey.OP_ACCEPT);
             logger.info("Серверный сокет успешно открыт");
         } catch (IOException e) {
             logger.severe("Не удалось открыть серверный сокет: " + e.getMessage());
@@ -169,17 +363,20 @@ public class Server {
      */
     private void shutdownServer() {
         try {
-            connectionPool.shutdown();
-            requestProcessingPool.shutdown();
-            if (!connectionPool.awaitTermination(5, TimeUnit.SECONDS)) {
-                connectionPool.shutdownNow();
+            runManager.shutdown();
+            // снимок записывается после остановки команд, пока соединения с БД ещё открыты
+            if (snapshotManager != null) {
+                snapshotManager.close();
             }
-            if (!requestProcessingPool.awaitTermination(5, TimeUnit.SECONDS)) {
-                requestProcessingPool.shutdownNow();
+            if (dataBaseManager != null) {
+                dataBaseManager.close();
             }
             if (serverSocket != null) {
                 serverSocket.close();
             }
+            if (selector != null) {
+                selector.close();
+            }
             consoleReader.close();
         } catch (IOException | InterruptedException e) {
             logger.warning("Ошибка при завершении работы сервера: " + e.getMessage());
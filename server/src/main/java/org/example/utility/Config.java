@@ -0,0 +1,64 @@
+package org.example.utility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * Настройки сервера из файла properties.txt.
+ * Отсутствующие или некорректные параметры заменяются значениями по умолчанию.
+ */
+public class Config {
+
+    private static final Logger logger = Logger.getLogger("logger");
+
+    /** Загруженные параметры */
+    private static final Properties properties = load();
+
+    private Config() {
+    }
+
+    /**
+     * Загружает параметры из properties.txt.
+     * @return параметры (пустые, если файл не найден)
+     */
+    private static Properties load() {
+        Properties properties = new Properties();
+        try (InputStream input = Config.class.getClassLoader().getResourceAsStream("properties.txt")) {
+            if (input != null) {
+                properties.load(input);
+            }
+        } catch (IOException e) {
+            logger.warning("Не удалось прочитать настройки: " + e.getMessage());
+        }
+        return properties;
+    }
+
+    /**
+     * Возвращает строковый параметр.
+     *
+     * @param key название параметра
+     * @param defaultValue значение по умолчанию
+     * @return значение параметра
+     */
+    public static String getString(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue).trim();
+    }
+
+    /**
+     * Возвращает целочисленный параметр.
+     *
+     * @param key название параметра
+     * @param defaultValue значение по умолчанию
+     * @return значение параметра
+     */
+    public static int getInt(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(getString(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            logger.warning("Параметр " + key + " должен быть целым числом");
+            return defaultValue;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.utility;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Режим выполнения команд на сервере.
+ * Выбирается при запуске параметром server.execution в properties.txt.
+ */
+public enum ExecutionMode {
+    /** Фиксированный пул платформенных потоков */
+    POOLED,
+    /** Отдельный виртуальный поток на каждый запрос */
+    VIRTUAL;
+
+    private static final Logger logger = Logger.getLogger("logger");
+
+    /**
+     * Возвращает режим по значению параметра без учёта регистра.
+     * Неизвестное значение не останавливает запуск сервера: используется режим POOLED.
+     *
+     * @param value значение параметра server.execution
+     * @return режим выполнения
+     */
+    public static ExecutionMode parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Неизвестный режим выполнения " + value + ", используется pooled");
+            return POOLED;
+        }
+    }
+
+    /**
+     * Создаёт исполнителя команд для режима.
+     * Виртуальные потоки доступны начиная с Java 21; на более старой JVM
+     * вместо них используется тот же фиксированный пул, что и в режиме POOLED.
+     *
+     * @param threads размер пула для режима POOLED (и для VIRTUAL без виртуальных потоков)
+     * @return исполнитель команд
+     */
+    public ExecutorService createExecutor(int threads) {
+        if (this == POOLED) {
+            return Executors.newFixedThreadPool(threads);
+        }
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            logger.warning("Виртуальные потоки недоступны в этой версии Java, используется пул потоков");
+            return Executors.newFixedThreadPool(threads);
+        }
+    }
+}
@@ -5,6 +5,7 @@ import org.example.managers.*;
 import org.example.network.Server;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.logging.Logger;
 
@@ -33,23 +34,61 @@ public class Facade {
         // Инициализация менеджера команд
         CommandManager commandManager = new CommandManager();
 
-        // Инициализация менеджера выполнения команд
-        RunManager runManager = new RunManager(commandManager);
+        // Инициализация менеджера выполнения команд в выбранном режиме:
+        // server.execution=pooled|virtual, server.threads (для pooled), server.db.concurrency
+        ExecutionMode executionMode = ExecutionMode.parse(Config.getString("server.execution", "pooled"));
+        // Сессии пользователей: server.session.ttl — время жизни неиспользуемой сессии в секундах
+        SessionManager sessionManager = new SessionManager(Config.getInt("server.session.ttl", 1800));
 
-        // Инициализация менеджера базы данных
+        // Вход и регистрация выполняются в отдельном пуле: server.auth.threads потоков,
+        // не больше server.auth.queue ожидающих запросов
+        RunManager runManager = new RunManager(commandManager, sessionManager, executionMode,
+                Config.getInt("server.threads", 3), Config.getInt("server.db.concurrency", 3),
+                Config.getInt("server.auth.threads", 2), Config.getInt("server.auth.queue", 64));
+        logger.info("Режим выполнения команд: " + executionMode);
+
+        // Инициализация менеджера базы данных с общим пулом соединений
         DataBaseManager dataBaseManager = new DataBaseManager();
+        logger.info(dataBaseManager.getPool().toString());
 
-        // Инициализация менеджера коллекции
-        CollectionManager collectionManager = new CollectionManager();
+        // Инициализация менеджера коллекции (использует тот же пул соединений);
+        // server.changelog.size — сколько последних изменений хранится для команды sync
+        CollectionManager collectionManager = new CollectionManager(dataBaseManager,
+                Config.getInt("server.changelog.size", CollectionManager.DEFAULT_CHANGE_LOG_SIZE));
 
         // Регистрация всех команд в системе
-        commandManager.init(commandManager, collectionManager, dataBaseManager);
+        commandManager.init(commandManager, collectionManager, dataBaseManager, sessionManager);
+
+        // Кеш результатов читающих команд: server.cache.bytes — предельный объём
+        // (0 — без хранения, одинаковые одновременные запросы всё равно вычисляются один раз)
+        int cacheBytes = Config.getInt("server.cache.bytes", 8 << 20);
+        commandManager.setResponseCache(new ResponseCache(collectionManager, cacheBytes));
+
+        // Снимок коллекции для быстрого перезапуска: server.snapshot.file (пусто — без снимков),
+        // server.snapshot.period — период записи в секундах (0 — только при остановке)
+        String snapshotPath = Config.getString("server.snapshot.file", "collection.snapshot");
+        SnapshotManager snapshotManager = snapshotPath.isEmpty() ? null
+                : new SnapshotManager(new SnapshotFile(Path.of(snapshotPath)), collectionManager, dataBaseManager);
 
         // Создание и запуск сервера
-        Server server = new Server("localhost", runManager, 1782, dataBaseManager, collectionManager);
+        Server server = new Server("localhost", runManager, 1782, dataBaseManager, collectionManager,
+                snapshotManager);
 
-        // Загрузка начального состояния коллекции
-        collectionManager.loadCollection();
+        // Загрузка начального состояния коллекции: из снимка с догрузкой изменений или из БД
+        // server.load.partitions частей параллельно (по умолчанию — по числу ядер; 1 — последовательно)
+        long loadStart = System.nanoTime();
+        int partitions = Config.getInt("server.load.partitions", Runtime.getRuntime().availableProcessors());
+        if (snapshotManager != null) {
+            snapshotManager.load(partitions);
+            snapshotManager.start(Config.getInt("server.snapshot.period", 300));
+            // при остановке процесса (Ctrl+C, SIGTERM) команды ещё могут выполняться,
+            // поэтому снимок записывается с ревизией прошлой записи, как периодический
+            Runtime.getRuntime().addShutdownHook(new Thread(snapshotManager::save, "snapshot-shutdown"));
+        } else {
+            collectionManager.loadCollection(partitions);
+        }
+        logger.info("Коллекция загружена: " + collectionManager.snapshot().size() + " элементов за "
+                + (System.nanoTime() - loadStart) / 1_000_000 + " мс");
 
         logger.info("Сервер запускается...");
         server.run();
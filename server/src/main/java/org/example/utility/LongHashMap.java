@@ -0,0 +1,223 @@
+package org.example.utility;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с ключами примитивного типа long.
+ * Использует открытую адресацию с линейным пробированием, поэтому ключи не упаковываются в {@link Long},
+ * а поиск, вставка и удаление выполняются в среднем за O(1).
+ * Не потокобезопасна.
+ *
+ * @param <V> тип значений
+ */
+public class LongHashMap<V> {
+
+    /** Максимальная доля занятых ячеек, после которой таблица увеличивается */
+    private static final float LOAD_FACTOR = 0.5f;
+
+    /** Ключи по ячейкам */
+    private long[] keys;
+
+    /** Значения по ячейкам; null означает свободную ячейку */
+    private Object[] values;
+
+    /** Количество элементов */
+    private int size;
+
+    /** Маска номера ячейки (ёмкость - 1) */
+    private int mask;
+
+    /**
+     * Конструктор пустой таблицы.
+     */
+    public LongHashMap() {
+        this(16);
+    }
+
+    /**
+     * Конструктор пустой таблицы с заданной ожидаемой ёмкостью.
+     * @param expectedSize ожидаемое количество элементов
+     */
+    public LongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Возвращает значение по ключу.
+     * @param key ключ
+     * @return значение или null, если ключа нет
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = find(key);
+        return slot < 0 ? null : (V) values[slot];
+    }
+
+    /**
+     * Проверяет наличие ключа.
+     * @param key ключ
+     * @return true, если ключ есть в таблице
+     */
+    public boolean containsKey(long key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Сохраняет значение по ключу.
+     * @param key ключ
+     * @param value значение (не null)
+     * @return предыдущее значение или null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Значение не может быть null");
+        }
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                V previous = (V) values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > (mask + 1) * LOAD_FACTOR) {
+            rehash(capacityFor(size));
+        }
+        return null;
+    }
+
+    /**
+     * Удаляет значение по ключу.
+     * Последующие элементы цепочки сдвигаются назад, поэтому таблица не накапливает удалённые ячейки.
+     * @param key ключ
+     * @return удалённое значение или null, если ключа не было
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int slot = find(key);
+        if (slot < 0) {
+            return null;
+        }
+        V removed = (V) values[slot];
+        int gap = slot;
+        int next = (gap + 1) & mask;
+        while (values[next] != null) {
+            int home = slot(keys[next]);
+            // элемент можно перенести в освободившуюся ячейку, если она лежит между его исходной ячейкой и текущей
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+            next = (next + 1) & mask;
+        }
+        values[gap] = null;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Возвращает количество элементов.
+     * @return количество элементов
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Проверяет, пуста ли таблица.
+     * @return true, если элементов нет
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Возвращает все ключи таблицы.
+     * @return новый массив ключей в порядке ячеек
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int count = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                result[count++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Удаляет все элементы.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Ищет ячейку с ключом.
+     * @return номер ячейки или -1, если ключа нет
+     */
+    private int find(long key) {
+        int slot = slot(key);
+        while (values[slot] != null) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Вычисляет исходную ячейку ключа.
+     */
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /**
+     * Переносит элементы в таблицу новой ёмкости.
+     */
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                while (values[slot] != null) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * Создаёт пустые массивы ячеек.
+     */
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    /**
+     * Подбирает ёмкость (степень двойки) для заданного количества элементов.
+     */
+    private static int capacityFor(int expectedSize) {
+        int capacity = 16;
+        while (capacity * LOAD_FACTOR <= expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.managers;
+
+import org.example.mainClasses.Coordinates;
+import org.example.mainClasses.Label;
+import org.example.mainClasses.MusicBand;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет, что порядок элементов {@link BandStorage} и индекс по ID согласованы
+ * с простой моделью на {@link ArrayList}.
+ */
+class BandStorageTest {
+
+    private static MusicBand band(long id) {
+        MusicBand band = new MusicBand("band" + id, new Coordinates(1f, id), LocalDateTime.of(2024, 1, 1, 0, 0),
+                null, null, null, new Label("label" + id % 7, 1, 1));
+        band.setId(id);
+        return band;
+    }
+
+    /**
+     * Сверяет хранилище с моделью: порядок, доступ по позиции, позицию по ID и поиск по ID.
+     */
+    private static void assertMatches(List<MusicBand> model, BandStorage storage) {
+        assertEquals(model.size(), storage.size());
+        assertEquals(model, storage.toList());
+        for (int i = 0; i < model.size(); i++) {
+            MusicBand band = model.get(i);
+            assertSame(band, storage.getAt(i));
+            assertEquals(i, storage.indexOf(band.getId()));
+            assertSame(band, storage.get(band.getId()));
+            assertTrue(storage.contains(band.getId()));
+        }
+        assertSame(model.isEmpty() ? null : model.get(0), storage.first());
+        assertSame(model.isEmpty() ? null : model.get(model.size() - 1), storage.last());
+    }
+
+    @Test
+    void keepsInsertionOrder() {
+        BandStorage storage = new BandStorage();
+        List<MusicBand> model = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            MusicBand band = band(id);
+            storage.add(band);
+            model.add(band);
+        }
+        assertMatches(model, storage);
+    }
+
+    @Test
+    void matchesListModelUnderRandomOperations() {
+        Random random = new Random(42);
+        BandStorage storage = new BandStorage();
+        List<MusicBand> model = new ArrayList<>();
+        long nextId = 1;
+        for (int step = 0; step < 20_000; step++) {
+            int operation = random.nextInt(10);
+            if (operation < 5 || model.isEmpty()) {
+                MusicBand band = band(nextId++);
+                storage.add(band);
+                model.add(band);
+            } else if (operation < 7) {
+                MusicBand band = model.remove(random.nextInt(model.size()));
+                assertSame(band, storage.remove(band.getId()));
+            } else if (operation < 9) {
+                int position = random.nextInt(model.size());
+                assertSame(model.remove(position), storage.removeAt(position));
+            } else {
+                long missing = nextId + random.nextInt(100);
+                assertNull(storage.remove(missing));
+                assertNull(storage.get(missing));
+                assertEquals(-1, storage.indexOf(missing));
+            }
+            if (step % 500 == 0) {
+                assertMatches(model, storage);
+            }
+        }
+        assertMatches(model, storage);
+    }
+
+    @Test
+    void rejectsDuplicateIdWithoutChangingStorage() {
+        BandStorage storage = new BandStorage();
+        MusicBand first = band(1);
+        MusicBand second = band(2);
+        storage.add(first);
+        storage.add(second);
+
+        assertThrows(IllegalArgumentException.class, () -> storage.add(band(1)));
+
+        assertMatches(List.of(first, second), storage);
+    }
+
+    @Test
+    void shuffleKeepsElementsAndIndex() {
+        BandStorage storage = new BandStorage();
+        Set<MusicBand> all = new HashSet<>();
+        for (long id = 1; id <= 200; id++) {
+            MusicBand band = band(id);
+            storage.add(band);
+            all.add(band);
+        }
+        storage.shuffle();
+
+        List<MusicBand> shuffled = storage.toList();
+        assertEquals(all, new HashSet<>(shuffled));
+        assertMatches(shuffled, storage);
+    }
+
+    @Test
+    void rejectsPositionOutOfRange() {
+        BandStorage storage = new BandStorage();
+        storage.add(band(1));
+
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.getAt(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.getAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> storage.removeAt(1));
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    void clearRemovesEverything() {
+        BandStorage storage = new BandStorage();
+        for (long id = 1; id <= 10; id++) {
+            storage.add(band(id));
+        }
+        storage.clear();
+
+        assertTrue(storage.isEmpty());
+        assertMatches(List.of(), storage);
+        storage.add(band(1));
+        assertEquals(1, storage.size());
+    }
+}
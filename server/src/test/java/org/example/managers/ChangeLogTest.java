@@ -0,0 +1,131 @@
+package org.example.managers;
+
+import org.example.mainClasses.Coordinates;
+import org.example.mainClasses.Label;
+import org.example.mainClasses.MusicBand;
+import org.example.network.CollectionDelta;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет сборку изменений {@link ChangeLog#since} и границу, с которой журнал покрывает изменения.
+ */
+class ChangeLogTest {
+
+    private static final LocalDate DATE = LocalDate.of(2024, 1, 1);
+
+    private static MusicBand band(long id) {
+        MusicBand band = new MusicBand("band" + id, new Coordinates(1f, id), LocalDateTime.of(2024, 1, 1, 0, 0),
+                null, null, null, new Label("label", 1, 1));
+        band.setId(id);
+        return band;
+    }
+
+    @Test
+    void returnsChangesAfterVersion() {
+        ChangeLog log = new ChangeLog(16);
+        MusicBand first = band(1);
+        MusicBand second = band(2);
+        log.put(1, first);
+        log.put(2, second);
+        log.remove(3, 7);
+
+        CollectionDelta delta = log.since(1, 3, DATE);
+
+        assertFalse(delta.isFull());
+        assertEquals(1, delta.getFromVersion());
+        assertEquals(3, delta.getVersion());
+        assertEquals(List.of(second), delta.getBands());
+        assertEquals(List.of(7L), delta.getRemoved());
+        assertEquals(DATE, delta.getDate());
+    }
+
+    @Test
+    void returnsEmptyDeltaForCurrentVersion() {
+        ChangeLog log = new ChangeLog(16);
+        log.put(1, band(1));
+
+        CollectionDelta delta = log.since(1, 1, DATE);
+
+        assertTrue(delta.getBands().isEmpty());
+        assertTrue(delta.getRemoved().isEmpty());
+    }
+
+    @Test
+    void foldsRepeatedChangesOfOneElement() {
+        ChangeLog log = new ChangeLog(16);
+        MusicBand updated = band(1);
+        log.put(1, band(1));
+        log.put(2, band(2));
+        log.put(3, updated);
+        log.put(4, band(3));
+        log.remove(5, 3);
+
+        CollectionDelta delta = log.since(0, 5, DATE);
+
+        // элемент 1 изменён после элемента 2, поэтому идёт за ним; добавленный и удалённый элемент 3 только удалён
+        assertEquals(List.of(2L, 1L), delta.getBands().stream().map(MusicBand::getId).toList());
+        assertSame(updated, delta.getBands().get(1));
+        assertEquals(List.of(3L), delta.getRemoved());
+    }
+
+    @Test
+    void readdedElementIsNotReportedRemoved() {
+        ChangeLog log = new ChangeLog(16);
+        log.remove(1, 5);
+        log.put(2, band(5));
+
+        CollectionDelta delta = log.since(0, 2, DATE);
+
+        assertEquals(List.of(5L), delta.getBands().stream().map(MusicBand::getId).toList());
+        assertTrue(delta.getRemoved().isEmpty());
+    }
+
+    @Test
+    void evictionRaisesFloor() {
+        ChangeLog log = new ChangeLog(2);
+        log.put(1, band(1));
+        log.put(2, band(2));
+        log.put(3, band(3));
+
+        // запись версии 1 вытеснена: изменения после версии 0 восстановить нельзя
+        assertNull(log.since(0, 3, DATE));
+        assertEquals(List.of(2L, 3L), log.since(1, 3, DATE).getBands().stream().map(MusicBand::getId).toList());
+        assertEquals(2, log.size());
+    }
+
+    @Test
+    void resetRaisesFloor() {
+        ChangeLog log = new ChangeLog(16);
+        log.put(1, band(1));
+        log.reset(2);
+        log.put(3, band(3));
+
+        assertNull(log.since(1, 3, DATE));
+        assertEquals(List.of(3L), log.since(2, 3, DATE).getBands().stream().map(MusicBand::getId).toList());
+    }
+
+    @Test
+    void rejectsVersionFromFuture() {
+        ChangeLog log = new ChangeLog(16);
+        log.put(1, band(1));
+
+        assertNull(log.since(2, 1, DATE));
+    }
+
+    @Test
+    void zeroCapacityKeepsNoChanges() {
+        ChangeLog log = new ChangeLog(0);
+        log.put(1, band(1));
+        log.put(2, band(2));
+
+        assertEquals(0, log.size());
+        assertNull(log.since(1, 2, DATE));
+        assertTrue(log.since(2, 2, DATE).getBands().isEmpty());
+    }
+}
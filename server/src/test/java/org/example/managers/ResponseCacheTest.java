@@ -0,0 +1,122 @@
+package org.example.managers;
+
+import org.example.exceptions.InvalidDataException;
+import org.example.mainClasses.Coordinates;
+import org.example.mainClasses.Label;
+import org.example.mainClasses.MusicBand;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет, что {@link ResponseCache} сбрасывает результаты при изменении коллекции
+ * и вытесняет давно не запрашивавшиеся результаты при переполнении.
+ */
+class ResponseCacheTest {
+
+    /** Коллекция без базы данных: кешу нужна только её версия */
+    private final CollectionManager collection = new CollectionManager(null, 16);
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private Supplier<String> compute(String result) {
+        return () -> {
+            computations.incrementAndGet();
+            return result;
+        };
+    }
+
+    private void changeCollection(long id) throws InvalidDataException {
+        MusicBand band = new MusicBand("band", new Coordinates(1f, 1), LocalDateTime.of(2024, 1, 1, 0, 0),
+                null, null, null, new Label("label", 1, 1));
+        band.setId(id);
+        collection.add(band);
+    }
+
+    @Test
+    void returnsCachedResultWhileVersionUnchanged() {
+        ResponseCache cache = new ResponseCache(collection, 1 << 20);
+
+        assertEquals("a", cache.get("show", null, compute("a")));
+        assertEquals("a", cache.get("show", null, compute("b")));
+        assertEquals(1, computations.get());
+    }
+
+    @Test
+    void recomputesAfterCollectionChanges() throws InvalidDataException {
+        ResponseCache cache = new ResponseCache(collection, 1 << 20);
+        cache.get("show", null, compute("before"));
+
+        changeCollection(1);
+
+        assertEquals("after", cache.get("show", null, compute("after")));
+        assertEquals("after", cache.get("show", null, compute("unused")));
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void separatesArguments() {
+        ResponseCache cache = new ResponseCache(collection, 1 << 20);
+
+        assertEquals("one", cache.get("cmd", 1, compute("one")));
+        assertEquals("two", cache.get("cmd", 2, compute("two")));
+        assertEquals("none", cache.get("cmd", null, compute("none")));
+        assertEquals("one", cache.get("cmd", 1, compute("unused")));
+        assertEquals(3, computations.get());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        String result = "x".repeat(100);
+        // места хватает на две записи такого размера, но не на три
+        ResponseCache cache = new ResponseCache(collection, 2 * (96 + 2 * (1 + result.length())) + 10);
+        cache.get("a", null, compute(result));
+        cache.get("b", null, compute(result));
+        cache.get("a", null, compute(result));
+
+        cache.get("c", null, compute(result));
+        assertEquals(3, computations.get());
+
+        // запись "b" запрашивалась раньше всех и вытеснена, "a" и "c" остались
+        cache.get("a", null, compute(result));
+        cache.get("c", null, compute(result));
+        assertEquals(3, computations.get());
+        cache.get("b", null, compute(result));
+        assertEquals(4, computations.get());
+    }
+
+    @Test
+    void doesNotStoreResultLargerThanCache() {
+        ResponseCache cache = new ResponseCache(collection, 64);
+
+        cache.get("show", null, compute("x".repeat(1000)));
+        cache.get("show", null, compute("x".repeat(1000)));
+
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void clearDropsEntries() {
+        ResponseCache cache = new ResponseCache(collection, 1 << 20);
+        cache.get("show", null, compute("a"));
+
+        cache.clear();
+
+        assertEquals("b", cache.get("show", null, compute("b")));
+        assertEquals(2, computations.get());
+    }
+
+    @Test
+    void failedComputationIsNotCached() {
+        ResponseCache cache = new ResponseCache(collection, 1 << 20);
+
+        assertThrows(IllegalStateException.class, () -> cache.get("show", null, () -> {
+            throw new IllegalStateException();
+        }));
+        assertEquals("a", cache.get("show", null, compute("a")));
+    }
+}
@@ -0,0 +1,220 @@
+package org.example.network;
+
+import org.example.commands.Command;
+import org.example.mainClasses.Coordinates;
+import org.example.mainClasses.Label;
+import org.example.mainClasses.MusicBand;
+import org.example.mainClasses.MusicGenre;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет двоичный формат {@link BinaryCodec}: восстановление записанных данных
+ * и отказ на повреждённых запросах.
+ */
+class BinaryCodecTest {
+
+    /** Коды команд из таблицы BinaryCodec */
+    private static final int OPCODE_SHOW = 11;
+    private static final int OPCODE_UPDATE = 13;
+
+    /** Смещение кода жанра в записи группы без строк: id, x, y, секунды, наносекунды, участники, дата основания */
+    private static final int GENRE_OFFSET = 8 + 4 + 8 + 8 + 4 + 4 + 8;
+
+    private static final String NAME = "Имя группы";
+
+    private static final Function<String, Command> COMMANDS = name -> new Command(name, "") {
+        @Override
+        public Response execute(Request request) {
+            return null;
+        }
+    };
+
+    private static MusicBand band() {
+        MusicBand band = new MusicBand(NAME, new Coordinates(12.5f, 900),
+                LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123_456_789), 4, new Date(1_000_000L),
+                MusicGenre.BLUES, new Label("Sony", 10, 1000));
+        band.setId(42);
+        band.setUserLogin("alice");
+        return band;
+    }
+
+    private static void assertSameBand(MusicBand expected, MusicBand actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getCoordinates().getX(), actual.getCoordinates().getX());
+        assertEquals(expected.getCoordinates().getY(), actual.getCoordinates().getY());
+        assertEquals(expected.getCreationDateTime(), actual.getCreationDateTime());
+        assertEquals(expected.hasNumberOfParticipants(), actual.hasNumberOfParticipants());
+        if (expected.hasNumberOfParticipants()) {
+            assertEquals(expected.getNumberOfParticipants(), actual.getNumberOfParticipants());
+        }
+        assertEquals(expected.getEstablishmentDate(), actual.getEstablishmentDate());
+        assertEquals(expected.getGenre(), actual.getGenre());
+        assertEquals(expected.getLabel().getName(), actual.getLabel().getName());
+        assertEquals(expected.getLabel().getBands(), actual.getLabel().getBands());
+        assertEquals(expected.getLabel().getSales(), actual.getLabel().getSales());
+        assertEquals(expected.getUserLogin(), actual.getUserLogin());
+    }
+
+    private static byte[] bandBytes(MusicBand band) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BinaryCodec.writeBand(new DataOutputStream(bytes), band);
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Записывает запрос в том виде, в каком его отправляет клиент: код команды, логин и пароль,
+     * аргумент типа long, группа (если есть) и версия коллекции.
+     */
+    private static byte[] request(int opcode, long args, byte[] band, long knownVersion) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(opcode);
+        out.writeByte(0);
+        writeString(out, "alice");
+        writeString(out, "secret");
+        out.writeByte(1);
+        out.writeLong(args);
+        out.writeBoolean(band != null);
+        if (band != null) {
+            out.write(band);
+        }
+        out.writeLong(knownVersion);
+        return bytes.toByteArray();
+    }
+
+    private static Request decode(byte[] data) throws IOException {
+        return BinaryCodec.decodeRequest(data, 0, data.length, COMMANDS);
+    }
+
+    @Test
+    void bandRoundTrip() throws IOException {
+        MusicBand band = band();
+
+        assertSameBand(band, BinaryCodec.readBand(ByteBuffer.wrap(bandBytes(band))));
+    }
+
+    @Test
+    void bandRoundTripWithEmptyOptionalFields() throws IOException {
+        MusicBand band = new MusicBand("x", new Coordinates(0f, 0), LocalDateTime.of(2024, 1, 1, 0, 0),
+                null, null, null, new Label(null, 0, 0));
+        band.setId(1);
+
+        MusicBand decoded = BinaryCodec.readBand(ByteBuffer.wrap(bandBytes(band)));
+
+        assertSameBand(band, decoded);
+        assertNull(decoded.getGenre());
+        assertNull(decoded.getEstablishmentDate());
+        assertNull(decoded.getUserLogin());
+    }
+
+    @Test
+    void decodesRequest() throws IOException {
+        MusicBand band = band();
+
+        Request request = decode(request(OPCODE_UPDATE, 42, bandBytes(band), 17));
+
+        assertEquals("update", request.getCommand().getName());
+        assertEquals("alice", request.getUser().getLogin());
+        assertEquals("secret", request.getUser().getPassword());
+        assertEquals(42L, request.getArgs());
+        assertSameBand(band, request.getMusicBand());
+        assertEquals(17, request.getKnownVersion());
+    }
+
+    @Test
+    void responseBandsMatchReadBand() throws IOException {
+        List<MusicBand> bands = List.of(band(), band());
+        Response response = new Response("ok");
+        response.setVersion(5);
+        response.setDelta(new CollectionDelta(3, 5, false, bands, List.of(9L), LocalDate.of(2024, 1, 1)));
+
+        ByteBuffer in = ByteBuffer.wrap(BinaryCodec.encodeResponse(response));
+
+        assertEquals(0, in.get());
+        int resultLength = in.getInt();
+        in.position(in.position() + resultLength);
+        assertEquals(-1, in.getInt());
+        assertEquals(5, in.getLong());
+        assertEquals(0, in.get());
+        assertEquals(1, in.get());
+        assertEquals(3, in.getLong());
+        assertEquals(5, in.getLong());
+        assertEquals(0, in.get());
+        assertEquals(2, in.getInt());
+        assertSameBand(bands.get(0), BinaryCodec.readBand(in));
+        assertSameBand(bands.get(1), BinaryCodec.readBand(in));
+        assertEquals(1, in.getInt());
+        assertEquals(9, in.getLong());
+        assertEquals(LocalDate.of(2024, 1, 1).toEpochDay(), in.getLong());
+        assertFalse(in.hasRemaining());
+    }
+
+    @Test
+    void rejectsUnknownOpcode() {
+        assertThrows(StreamCorruptedException.class, () -> decode(request(100, 0, null, -1)));
+        assertThrows(StreamCorruptedException.class, () -> decode(request(-1, 0, null, -1)));
+    }
+
+    @Test
+    void rejectsTruncatedRequest() throws IOException {
+        byte[] data = request(OPCODE_UPDATE, 42, bandBytes(band()), 17);
+        for (int length = 0; length < data.length; length++) {
+            byte[] truncated = Arrays.copyOf(data, length);
+            assertThrows(StreamCorruptedException.class, () -> decode(truncated), "длина " + length);
+        }
+    }
+
+    @Test
+    void rejectsUnknownGenre() throws IOException {
+        byte[] band = bandBytes(band());
+        int genre = GENRE_OFFSET + 4 + NAME.getBytes(StandardCharsets.UTF_8).length;
+        assertEquals(MusicGenre.BLUES.getCode(), band[genre]);
+        band[genre] = 100;
+
+        assertThrows(StreamCorruptedException.class, () -> decode(request(OPCODE_UPDATE, 42, band, 17)));
+    }
+
+    @Test
+    void rejectsInvalidNanos() throws IOException {
+        byte[] band = bandBytes(band());
+        int nanos = 8 + 4 + NAME.getBytes(StandardCharsets.UTF_8).length + 4 + 8 + 8;
+        ByteBuffer.wrap(band).putInt(nanos, 2_000_000_000);
+
+        assertThrows(StreamCorruptedException.class, () -> decode(request(OPCODE_UPDATE, 42, band, 17)));
+    }
+
+    @Test
+    void rejectsUnknownAuthAndArgumentTypes() throws IOException {
+        byte[] badAuth = request(OPCODE_SHOW, 0, null, -1);
+        badAuth[1] = 9;
+        assertThrows(StreamCorruptedException.class, () -> decode(badAuth));
+
+        byte[] badArgs = request(OPCODE_SHOW, 0, null, -1);
+        int argsType = 2 + 4 + "alice".length() + 4 + "secret".length();
+        assertEquals(1, badArgs[argsType]);
+        badArgs[argsType] = 9;
+        assertThrows(StreamCorruptedException.class, () -> decode(badArgs));
+    }
+}
@@ -0,0 +1,96 @@
+package org.example.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Проверяет {@link LongHashMap} по {@link HashMap}, в том числе удаление со сдвигом цепочки назад.
+ */
+class LongHashMapTest {
+
+    private static void assertMatches(Map<Long, String> model, LongHashMap<String> map) {
+        assertEquals(model.size(), map.size());
+        for (Map.Entry<Long, String> entry : model.entrySet()) {
+            assertEquals(entry.getValue(), map.get(entry.getKey()));
+            assertTrue(map.containsKey(entry.getKey()));
+        }
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(model.keySet().stream().mapToLong(Long::longValue).sorted().toArray(), keys);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomOperations() {
+        Random random = new Random(7);
+        LongHashMap<String> map = new LongHashMap<>();
+        Map<Long, String> model = new HashMap<>();
+        for (int step = 0; step < 100_000; step++) {
+            // небольшой диапазон ключей даёт длинные цепочки и частые удаления из их середины
+            long key = random.nextInt(512) - 256;
+            if (random.nextBoolean()) {
+                String value = "v" + step;
+                assertEquals(model.put(key, value), map.put(key, value));
+            } else {
+                assertEquals(model.remove(key), map.remove(key));
+            }
+            assertEquals(model.get(key), map.get(key));
+            if (step % 1000 == 0) {
+                assertMatches(model, map);
+            }
+        }
+        assertMatches(model, map);
+    }
+
+    @Test
+    void findsRemainingKeysAfterRemovingFromClusters() {
+        LongHashMap<String> map = new LongHashMap<>(4);
+        Map<Long, String> model = new HashMap<>();
+        for (long key = 0; key < 1000; key++) {
+            map.put(key, "v" + key);
+            model.put(key, "v" + key);
+        }
+        for (long key = 0; key < 1000; key += 3) {
+            assertEquals("v" + key, map.remove(key));
+            model.remove(key);
+        }
+        assertMatches(model, map);
+        for (long key = 0; key < 1000; key += 3) {
+            assertNull(map.get(key));
+            assertNull(map.remove(key));
+        }
+    }
+
+    @Test
+    void supportsExtremeKeys() {
+        LongHashMap<String> map = new LongHashMap<>();
+        long[] keys = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE};
+        for (long key : keys) {
+            assertNull(map.put(key, String.valueOf(key)));
+        }
+        for (long key : keys) {
+            assertEquals(String.valueOf(key), map.get(key));
+        }
+        assertEquals("0", map.remove(0));
+        assertFalse(map.containsKey(0));
+        assertEquals(3, map.size());
+    }
+
+    @Test
+    void clearEmptiesMap() {
+        LongHashMap<String> map = new LongHashMap<>();
+        for (long key = 0; key < 100; key++) {
+            map.put(key, "v");
+        }
+        map.clear();
+
+        assertTrue(map.isEmpty());
+        assertNull(map.get(5));
+        assertEquals(0, map.keys().length);
+    }
+}